@@ -7,12 +7,16 @@ import model.MovablePiece;
 import model.Mushroom;
 import model.Piece;
 import util.Move;
+import util.MoveList;
 import util.Resources;
+import util.SolveResult;
 import util.Solver;
 
-import java.util.ArrayDeque;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
 
 /**
  * The controller is used to register the user's moves so that it updates the
@@ -28,6 +32,16 @@ import java.util.List;
  */
 public class GameController {
 
+    /**
+     * The maximum duration of the search for a hint.
+     */
+    private static final Duration HINT_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The maximum number of states visited by the search for a hint.
+     */
+    private static final int HINT_MAX_STATES = 1 << 22;
+
     /**
      * A list used to hold information about the most recent click.
      */
@@ -51,18 +65,18 @@ public class GameController {
     private int currentLevel;
 
     /**
-     * A stack that maintains moves that can be undone.
+     * A stack that maintains packed moves that can be undone.
      */
     @Getter
     @Setter
-    private ArrayDeque<Move> undoMoveStack;
+    private MoveList undoMoveStack;
 
     /**
-     * A stack that maintains moves that can be redone.
+     * A stack that maintains packed moves that can be redone.
      */
     @Getter
     @Setter
-    private ArrayDeque<Move> redoMoveStack;
+    private MoveList redoMoveStack;
 
     /**
      * Constructs a controller based on the supplied board and level number. Should the level number be non-positive,
@@ -75,8 +89,8 @@ public class GameController {
         this.board = board;
         this.currentLevel = level;
         this.moveList = new ArrayList<>();
-        this.undoMoveStack = new ArrayDeque<>();
-        this.redoMoveStack = new ArrayDeque<>();
+        this.undoMoveStack = new MoveList();
+        this.redoMoveStack = new MoveList();
 
         if (currentLevel > 0) {
             this.isDefaultLevel = true;
@@ -100,7 +114,7 @@ public class GameController {
             if (board.move(movePiece) && !moveList.isEmpty()) {
                 moveList.clear();
                 redoMoveStack.clear();
-                undoMoveStack.push(movePiece);
+                undoMoveStack.push(movePiece.pack());
                 return ClickValidity.VALID_MOVE_MADE;
             } else if (moveList.isEmpty()) {
                 return ClickValidity.VALID_MOVE_MADE;
@@ -126,6 +140,24 @@ public class GameController {
         return new ArrayList<>();
     }
 
+    /**
+     * Writes all possible moves for the piece selected in the view as packed moves
+     * (see {@link Move#pack(int, int)}) into the specified buffer.
+     *
+     * @param x     represents the start of the x value of the piece selected
+     * @param y     represents the start of the y value of the piece selected
+     * @param moves The buffer to write the packed moves into. Must have room for
+     *              {@link MovablePiece#MAX_MOVES} moves.
+     * @return The number of moves written into the buffer
+     */
+    public int getPossibleMoves(int x, int y, int[] moves) {
+        Piece piece = board.getPiece(x, y);
+        if (piece instanceof MovablePiece) {
+            return ((MovablePiece) piece).getPossibleMoves(board, x, y, moves, 0);
+        }
+        return 0;
+    }
+
     /**
      * Removes any history of a previously stored position.
      */
@@ -142,7 +174,7 @@ public class GameController {
         if (isDefaultLevel) {
             board = Resources.getDefaultBoardByLevel(currentLevel);
         } else {
-            board = Resources.getAllUserBoards().stream().filter(b -> b.getName().equals(board.getName())).findFirst().orElse(null);
+            board = Resources.getUserBoardByName(board.getName());
 
             if (board == null) {
                 board = Resources.getDefaultBoardByLevel(1);
@@ -165,6 +197,43 @@ public class GameController {
         return Solver.getNextBestMove(board);
     }
 
+    /**
+     * Solves this controller's current board in the background, giving up once the
+     * search exceeds {@link #HINT_TIMEOUT} or {@link #HINT_MAX_STATES}.
+     *
+     * @param progress The callback notified, from the solving thread, of the number
+     *                 of states visited so far, or null
+     * @return The future result of solving the board, which stops the search if
+     * cancelled
+     */
+    public CompletableFuture<SolveResult> solveAsync(IntConsumer progress) {
+        return Solver.solveAsync(board, Solver.Strategy.BREADTH_FIRST, HINT_TIMEOUT, HINT_MAX_STATES, progress);
+    }
+
+    /**
+     * Speculatively solves, in the background, the boards this controller's current
+     * board leads to through every possible move, so that the hint is known right
+     * away whichever move the player makes next. The searches give up once they
+     * exceed {@link #HINT_TIMEOUT} altogether, or {@link #HINT_MAX_STATES} each.
+     *
+     * @return The future completed once every next board is solved, which stops the
+     * searches if cancelled
+     */
+    public CompletableFuture<Void> precomputeHints() {
+        int[] moves = new int[Board.MAX_MOVES];
+        int[] pieceMoves = new int[MovablePiece.MAX_MOVES];
+        int count = 0;
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                int pieceCount = getPossibleMoves(x, y, pieceMoves);
+                System.arraycopy(pieceMoves, 0, moves, count, pieceCount);
+                count += pieceCount;
+            }
+        }
+        return Solver.precomputeAsync(board, moves, count, Solver.Strategy.BREADTH_FIRST, HINT_TIMEOUT,
+                HINT_MAX_STATES);
+    }
+
     /**
      * Undoes a move.
      *
@@ -173,9 +242,9 @@ public class GameController {
 
     public boolean undoMove() {
         if (!undoMoveStack.isEmpty()) {
-            Move undoMove = undoMoveStack.pop();
+            int undoMove = undoMoveStack.pop();
             redoMoveStack.push(undoMove);
-            board.move(new Move(undoMove.xEnd, undoMove.yEnd, undoMove.xStart, undoMove.yStart));
+            board.move(Move.unpack(Move.reverse(undoMove)));
             return true;
         }
         return false;
@@ -188,9 +257,9 @@ public class GameController {
      */
     public boolean redoMove() {
         if (!redoMoveStack.isEmpty()) {
-            Move redoMove = redoMoveStack.pop();
+            int redoMove = redoMoveStack.pop();
             undoMoveStack.push(redoMove);
-            board.move(redoMove);
+            board.move(Move.unpack(redoMove));
             return true;
         }
         return false;
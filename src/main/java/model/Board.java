@@ -1,13 +1,14 @@
 package model;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import util.Move;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.SplittableRandom;
 
 /**
  * This class represents a board which keeps track of tiles and pieces within
@@ -26,11 +27,22 @@ public class Board {
      */
     public static final int SIZE = 5;
 
+    /**
+     * The maximum number of moves that can be possible on any board.
+     */
+    public static final int MAX_MOVES = MovablePiece.MAX_MOVES * SIZE * SIZE;
+
     /**
      * A String used to represent an empty tile on the board.
      */
     static final String EMPTY = "X";
 
+    /**
+     * Random keys used for Zobrist hashing, indexed by square and piece code. The
+     * key of an empty square is always zero.
+     */
+    private static final long[][] ZOBRIST_KEYS = createZobristKeys();
+
     /**
      * A 2D array of tiles used to manage all tiles on the board.
      */
@@ -49,6 +61,20 @@ public class Board {
     @Setter
     private String name;
 
+    /**
+     * The Zobrist key of this board, that is the exclusive or of the keys of every
+     * piece at its position. Kept up to date whenever a piece is set or removed.
+     */
+    @Getter
+    private long zobristKey;
+
+    /**
+     * A mask of the occupied squares of this board, as used by {@link BoardState}.
+     * Kept up to date whenever a piece is set or removed.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private int occupancy;
+
     /**
      * Construct an empty board.
      *
@@ -63,7 +89,8 @@ public class Board {
 
     /**
      * A copy constructor for Board. Does not retain the list of listeners from the
-     * old board. That is, it empties its listener list.
+     * old board. That is, it empties its listener list. Pieces are immutable, so
+     * they are shared with the old board.
      *
      * @param board The board to copy
      */
@@ -75,6 +102,8 @@ public class Board {
                 tiles[i][j] = new Tile(board.tiles[i][j]);
             }
         }
+        zobristKey = board.zobristKey;
+        occupancy = board.occupancy;
         boardListeners = new ArrayList<>();
     }
 
@@ -97,25 +126,25 @@ public class Board {
             for (int j = 0; j < SIZE; j++) {
                 if (!currBoard[5 * i + j].equals(EMPTY)) {
                     if (currBoard[5 * i + j].length() == 2) {
-                        board.tiles[i][j].placePiece(new Mushroom());
+                        board.placePiece(Mushroom.of(), i, j);
                     } else if (currBoard[5 * i + j].length() == 3) {
-                        board.tiles[i][j].placePiece(Rabbit.createRabbit(currBoard[5 * i + j]));
+                        board.placePiece(Rabbit.createRabbit(currBoard[5 * i + j]), i, j);
                     } else if (currBoard[5 * i +
                             j].substring(1, 2).equals(Fox.FoxType.HEAD.toString().substring(0, 1))) {
                         Fox f = Fox.createFox(currBoard[5 * i + j]);
-                        board.tiles[i][j].placePiece(f);
+                        board.placePiece(f, i, j);
                         switch (f.getDirection()) {
                             case DOWN:
-                                board.tiles[i][j - 1].placePiece(f.getOtherHalf());
+                                board.placePiece(f.getOtherHalf(), i, j - 1);
                                 break;
                             case LEFT:
-                                board.tiles[i + 1][j].placePiece(f.getOtherHalf());
+                                board.placePiece(f.getOtherHalf(), i + 1, j);
                                 break;
                             case RIGHT:
-                                board.tiles[i - 1][j].placePiece(f.getOtherHalf());
+                                board.placePiece(f.getOtherHalf(), i - 1, j);
                                 break;
                             default:
-                                board.tiles[i][j + 1].placePiece(f.getOtherHalf());
+                                board.placePiece(f.getOtherHalf(), i, j + 1);
                         }
                     }
                 }
@@ -124,6 +153,35 @@ public class Board {
         return board;
     }
 
+    /**
+     * Creates the table of random keys used for Zobrist hashing. A fixed seed is
+     * used so that keys are identical from one run to the next.
+     *
+     * @return The table of keys, indexed by square and piece code
+     */
+    private static long[][] createZobristKeys() {
+        SplittableRandom random = new SplittableRandom(0x5EED_F0C5L);
+        long[][] keys = new long[SIZE * SIZE][32];
+        for (long[] squareKeys : keys) {
+            for (int code = 1; code < squareKeys.length; code++) {
+                squareKeys[code] = random.nextLong();
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the Zobrist key of a piece at the specified position.
+     *
+     * @param piece The piece, possibly null
+     * @param x     The x-coordinate of the position
+     * @param y     The y-coordinate of the position
+     * @return The key of the piece at that position, zero if the piece is null
+     */
+    private static long zobristKey(Piece piece, int x, int y) {
+        return ZOBRIST_KEYS[x * SIZE + y][BoardState.codeOf(piece)];
+    }
+
     /**
      * Initializes the base configuration for any board (green and brown tiles).
      */
@@ -235,13 +293,29 @@ public class Board {
      */
     public boolean setPiece(Piece piece, int x, int y) {
         if (piece != null && validatePosition(x, y)) {
-            tiles[x][y].placePiece(piece);
+            placePiece(piece, x, y);
             notifyListeners();
             return true;
         }
         return false;
     }
 
+    /**
+     * Places the specified piece at the specified (valid) position, keeping the
+     * Zobrist key of this board up to date. Listeners are not notified.
+     *
+     * @param piece The piece to place at the specified position
+     * @param x     The x-coordinate of the position
+     * @param y     The y-coordinate of the position
+     */
+    private void placePiece(Piece piece, int x, int y) {
+        if (piece != null) {
+            zobristKey ^= zobristKey(tiles[x][y].getPiece(), x, y) ^ zobristKey(piece, x, y);
+            occupancy |= BoardState.bit(x, y);
+            tiles[x][y].placePiece(piece);
+        }
+    }
+
     /**
      * Removes the piece at the specified position.
      *
@@ -253,6 +327,8 @@ public class Board {
     public Piece removePiece(int x, int y) {
         if (validatePosition(x, y) && tiles[x][y].isOccupied()) {
             notifyListeners();
+            zobristKey ^= zobristKey(tiles[x][y].getPiece(), x, y);
+            occupancy &= ~BoardState.bit(x, y);
             return tiles[x][y].removePiece();
         }
         return null;
@@ -291,33 +367,52 @@ public class Board {
      * @return A list containing all possible move objects for this board
      */
     public List<Move> getPossibleMoves() {
-        List<Move> moves = new ArrayList<>();
+        int[] moves = new int[MAX_MOVES];
+        int count = getPossibleMoves(moves);
+        List<Move> moveList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moveList.add(Move.unpack(moves[i]));
+        }
+        return moveList;
+    }
+
+    /**
+     * Writes all possible moves for this board as packed moves (see
+     * {@link Move#pack(int, int)}) into the specified buffer, without allocating
+     * any move objects.
+     *
+     * @param moves The buffer to write the packed moves into. Must have room for
+     *              {@link #MAX_MOVES} moves.
+     * @return The number of moves written into the buffer
+     */
+    public int getPossibleMoves(int[] moves) {
+        int count = 0;
         for (int i = 0; i < SIZE; i++) {
             for (int j = 0; j < SIZE; j++) {
                 Piece piece = tiles[i][j].getPiece();
                 if (piece instanceof MovablePiece) {
-                    moves.addAll(((MovablePiece) piece).getPossibleMoves(this, i, j));
+                    count = ((MovablePiece) piece).getPossibleMoves(this, i, j, moves, count);
                 }
             }
         }
-        return moves;
+        return count;
     }
 
     /**
-     * @return The hash code for this Board, as an integer.
+     * @return The hash code for this Board, derived from its Zobrist key.
      */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        return prime * result + Arrays.deepHashCode(tiles);
+        return (int) (zobristKey ^ zobristKey >>> 32);
     }
 
     /**
      * Determines equality between a board and another object. Equality between two
-     * Board objects is satisfied if the two-dimensional array of tiles maintained
-     * by both boards are "deeply" equal. No regard is given to the list of
-     * listeners or the board's name.
+     * Board objects is satisfied if the same pieces are placed on the same tiles of
+     * both boards. As pieces are interned, they are compared by identity, that is
+     * by code. No regard is given to the list of listeners or the board's name.
+     * Boards with different Zobrist keys are known to differ without comparing
+     * their tiles.
      *
      * @param obj The object to compare this board to
      * @return True if the objects are equal, false otherwise
@@ -327,10 +422,18 @@ public class Board {
         if (this == obj) {
             return true;
         }
-        if (!(obj instanceof Board)) {
+        if (!(obj instanceof Board) || zobristKey != ((Board) obj).zobristKey) {
             return false;
         }
-        return Arrays.deepEquals(tiles, ((Board) obj).tiles);
+        Board board = (Board) obj;
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                if (tiles[i][j].getPiece() != board.tiles[i][j].getPiece()) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     /**
@@ -0,0 +1,793 @@
+package model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import util.Move;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class represents a compact, immutable snapshot of the pieces on a board.
+ * Every tile is described by a five bit piece code, and the board is stored as
+ * five 25-bit planes (one plane per bit of the code) packed into two longs.
+ * Occupancy, rabbit, mushroom and fox masks can therefore be obtained with a
+ * handful of bitwise operations, and whole positions can be stored, compared
+ * and hashed without allocating any Tile or Piece objects.
+ * <p>
+ * Squares are indexed in the same order as the String representation of a
+ * board, that is {@code square = x * Board.SIZE + y}.
+ *
+ * @author Samuel Gamelin
+ */
+@Getter
+@EqualsAndHashCode
+public final class BoardState {
+
+    /**
+     * The number of squares on a board.
+     */
+    public static final int SQUARES = Board.SIZE * Board.SIZE;
+
+    /**
+     * A mask containing every square of the board.
+     */
+    public static final int ALL_SQUARES = (1 << SQUARES) - 1;
+
+    /**
+     * A mask containing the brown holes of the board (the corners and the centre).
+     */
+    public static final int HOLES = bit(0, 0) | bit(0, 4) | bit(4, 0) | bit(4, 4) | bit(2, 2);
+
+    /**
+     * The code of an empty square.
+     */
+    public static final int EMPTY = 0;
+
+    /**
+     * The code bit set for every fox half. For foxes, the remaining bits hold
+     * {@link #HEAD}, the direction's ordinal (two bits) and {@link #ID}.
+     */
+    public static final int FOX = 1;
+
+    /**
+     * The code bit set for the head of a fox.
+     */
+    public static final int HEAD = 1 << 1;
+
+    /**
+     * The code bit set for a fox whose id is true.
+     */
+    public static final int ID = 1 << 4;
+
+    /**
+     * The code of a mushroom.
+     */
+    public static final int MUSHROOM = 1 << 1;
+
+    /**
+     * The code bit set for every rabbit. For rabbits, the two upper bits hold the
+     * colour's ordinal.
+     */
+    public static final int RABBIT = 1 << 2;
+
+    /**
+     * A mask with the 25 bits of a plane.
+     */
+    private static final long PLANE = ALL_SQUARES;
+
+    /**
+     * The number of squares whose fifth plane bit is stored in the low long. The
+     * bits of the remaining squares are stored in the high long.
+     */
+    private static final int SPLIT = 14;
+
+    /**
+     * For every square, the bits of the low long that describe it.
+     */
+    private static final long[] LOW_SQUARE_BITS = new long[SQUARES];
+
+    /**
+     * For every square, the bits of the high long that describe it.
+     */
+    private static final long[] HIGH_SQUARE_BITS = new long[SQUARES];
+
+    /**
+     * The symmetries of the board that preserve the rules of the game: the
+     * identity, the transposition, the half-turn and the anti-transposition. The
+     * quarter-turns and the remaining reflections are not symmetries of the game,
+     * as the fox's path validation lets a fox on an edge slide one way only.
+     */
+    private static final int SYMMETRIES = 4;
+
+    /**
+     * For every symmetry, the square every square is mapped to.
+     */
+    private static final int[][] SYMMETRY_SQUARES = new int[SYMMETRIES][SQUARES];
+
+    /**
+     * For every symmetry, the ordinal of the direction every direction is mapped to.
+     */
+    private static final int[][] SYMMETRY_DIRECTIONS = {{0, 1, 2, 3}, {2, 3, 0, 1}, {1, 0, 3, 2}, {3, 2, 1, 0}};
+
+    static {
+        for (int square = 0; square < SQUARES; square++) {
+            LOW_SQUARE_BITS[square] = lowBits(square, (1 << 5) - 1);
+            HIGH_SQUARE_BITS[square] = highBits(square, (1 << 5) - 1);
+            int x = x(square);
+            int y = y(square);
+            SYMMETRY_SQUARES[0][square] = square;
+            SYMMETRY_SQUARES[1][square] = square(y, x);
+            SYMMETRY_SQUARES[2][square] = square(Board.SIZE - 1 - x, Board.SIZE - 1 - y);
+            SYMMETRY_SQUARES[3][square] = square(Board.SIZE - 1 - y, Board.SIZE - 1 - x);
+        }
+    }
+
+    /**
+     * Holds the fox plane (bits 0-24), the head/mushroom plane (bits 25-49) and the
+     * fifth plane for the first {@link #SPLIT} squares (bits 50-63).
+     */
+    private final long low;
+
+    /**
+     * Holds the direction/rabbit plane (bits 0-24), the fourth plane (bits 25-49)
+     * and the fifth plane for the remaining squares (bits 50-60).
+     */
+    private final long high;
+
+    /**
+     * Creates a board state from its two packed longs.
+     *
+     * @param low  The low long of the state
+     * @param high The high long of the state
+     */
+    public BoardState(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Creates a board state from the pieces currently placed on the specified
+     * board. No regard is given to the board's name or listeners.
+     *
+     * @param board The board to take a snapshot of
+     * @return The state of the specified board
+     */
+    public static BoardState of(Board board) {
+        int[] codes = new int[SQUARES];
+        for (int x = 0; x < Board.SIZE; x++) {
+            for (int y = 0; y < Board.SIZE; y++) {
+                codes[square(x, y)] = codeOf(board.getPiece(x, y));
+            }
+        }
+        return pack(codes);
+    }
+
+    /**
+     * Creates a board state from a String representation of a board, as used by
+     * {@link Board#createBoard(String, String)}.
+     *
+     * @param representation The String representation of the board
+     * @return The corresponding state, or null if the representation is malformed
+     */
+    public static BoardState fromString(String representation) {
+        Board board = Board.createBoard("", representation);
+        return board == null ? null : of(board);
+    }
+
+    /**
+     * Packs an array of piece codes (one per square) into a board state.
+     *
+     * @param codes The piece codes, indexed by square
+     * @return The packed board state
+     */
+    public static BoardState pack(int[] codes) {
+        long low = 0;
+        long high = 0;
+        for (int square = 0; square < SQUARES; square++) {
+            low |= lowBits(square, codes[square]);
+            high |= highBits(square, codes[square]);
+        }
+        return new BoardState(low, high);
+    }
+
+    /**
+     * Returns the bits of the low long describing a piece code on a square.
+     *
+     * @param square The index of the square
+     * @param code   The piece code
+     * @return The bits of the low long for that square and code
+     */
+    private static long lowBits(int square, int code) {
+        long bits = (long) (code & 1) << square | (long) (code >> 1 & 1) << (square + 25);
+        return square < SPLIT ? bits | (long) (code >> 4 & 1) << (square + 50) : bits;
+    }
+
+    /**
+     * Returns the bits of the high long describing a piece code on a square.
+     *
+     * @param square The index of the square
+     * @param code   The piece code
+     * @return The bits of the high long for that square and code
+     */
+    private static long highBits(int square, int code) {
+        long bits = (long) (code >> 2 & 1) << square | (long) (code >> 3 & 1) << (square + 25);
+        return square < SPLIT ? bits : bits | (long) (code >> 4 & 1) << (square + 50 - SPLIT);
+    }
+
+    /**
+     * Returns the piece code corresponding to the specified piece.
+     *
+     * @param piece The piece whose code is desired, possibly null
+     * @return The code of the piece, or {@link #EMPTY} if the piece is null
+     */
+    static int codeOf(Piece piece) {
+        return piece == null ? EMPTY : piece.getCode();
+    }
+
+    /**
+     * Returns the index of the square at the specified position.
+     *
+     * @param x The x-coordinate of the position
+     * @param y The y-coordinate of the position
+     * @return The index of the square
+     */
+    public static int square(int x, int y) {
+        return x * Board.SIZE + y;
+    }
+
+    /**
+     * Returns a mask with only the square at the specified position set.
+     *
+     * @param x The x-coordinate of the position
+     * @param y The y-coordinate of the position
+     * @return The mask of the square
+     */
+    public static int bit(int x, int y) {
+        return 1 << square(x, y);
+    }
+
+    /**
+     * @param square The index of a square
+     * @return The x-coordinate of the square
+     */
+    public static int x(int square) {
+        return square / Board.SIZE;
+    }
+
+    /**
+     * @param square The index of a square
+     * @return The y-coordinate of the square
+     */
+    public static int y(int square) {
+        return square % Board.SIZE;
+    }
+
+    /**
+     * @param code A fox code
+     * @return The direction of the fox with the specified code
+     */
+    public static Fox.Direction direction(int code) {
+        return Fox.Direction.values()[code >> 2 & 3];
+    }
+
+    /**
+     * Returns the square that the other half of a fox occupies, given the square
+     * and code of one of its halves.
+     *
+     * @param square The square of a fox half
+     * @param code   The code of the fox half
+     * @return The square of the other half, or -1 if it would be outside the board
+     */
+    public static int otherHalf(int square, int code) {
+        int x = x(square);
+        int y = y(square);
+        // A tail looks towards its head, and a head looks away from its tail
+        int sign = (code & HEAD) != 0 ? -1 : 1;
+        switch (direction(code)) {
+            case LEFT:
+                x -= sign;
+                break;
+            case RIGHT:
+                x += sign;
+                break;
+            case UP:
+                y -= sign;
+                break;
+            default:
+                y += sign;
+        }
+        return x >= 0 && y >= 0 && x < Board.SIZE && y < Board.SIZE ? square(x, y) : -1;
+    }
+
+    /**
+     * Returns the 25-bit plane holding the specified bit of every square's code.
+     *
+     * @param bit The bit of the code, from 0 to 4
+     * @return The plane for that bit
+     */
+    private int plane(int bit) {
+        switch (bit) {
+            case 0:
+                return (int) (low & PLANE);
+            case 1:
+                return (int) (low >>> 25 & PLANE);
+            case 2:
+                return (int) (high & PLANE);
+            case 3:
+                return (int) (high >>> 25 & PLANE);
+            default:
+                return (int) ((low >>> 50 | high >>> 50 << SPLIT) & PLANE);
+        }
+    }
+
+    /**
+     * Returns the code of the piece on the specified square.
+     *
+     * @param square The index of the square
+     * @return The code of the piece on that square, or {@link #EMPTY}
+     */
+    public int codeAt(int square) {
+        long fifth = square < SPLIT ? low >>> (square + 50) : high >>> (square + 50 - SPLIT);
+        return (int) ((low >>> square & 1) | (low >>> (square + 25) & 1) << 1 | (high >>> square & 1) << 2 |
+                (high >>> (square + 25) & 1) << 3 | (fifth & 1) << 4);
+    }
+
+    /**
+     * Unpacks the code of every square of this state.
+     *
+     * @return An array of piece codes, indexed by square
+     */
+    public int[] unpack() {
+        int[] codes = new int[SQUARES];
+        for (int square = 0; square < SQUARES; square++) {
+            codes[square] = codeAt(square);
+        }
+        return codes;
+    }
+
+    /**
+     * @return A mask of every occupied square
+     */
+    public int occupied() {
+        return plane(0) | plane(1) | plane(2);
+    }
+
+    /**
+     * @return A mask of every square holding a fox half
+     */
+    public int foxes() {
+        return plane(0);
+    }
+
+    /**
+     * @return A mask of every square holding the head of a fox
+     */
+    public int foxHeads() {
+        return plane(0) & plane(1);
+    }
+
+    /**
+     * @return A mask of every square holding a mushroom
+     */
+    public int mushrooms() {
+        return plane(1) & ~plane(0);
+    }
+
+    /**
+     * @return A mask of every square holding a rabbit
+     */
+    public int rabbits() {
+        return plane(2) & ~plane(0);
+    }
+
+    /**
+     * Writes all possible moves for this state as packed moves (see
+     * {@link Move#pack(int, int)}) into the specified buffer. The moves, and their
+     * order, are the same as those of {@link Board#getPossibleMoves(int[])} for the
+     * board this state describes.
+     *
+     * @param moves The buffer to write the packed moves into. Must have room for
+     *              {@link Board#MAX_MOVES} moves.
+     * @return The number of moves written into the buffer
+     */
+    public int getPossibleMoves(int[] moves) {
+        return getPossibleMoves(moves, -1);
+    }
+
+    /**
+     * Writes the possible moves for this state as packed moves (see
+     * {@link Move#pack(int, int)}) into the specified buffer, in macro-move mode:
+     * should the last move have been made by a fox, that fox is not moved again.
+     * Whichever way they go, consecutive slides of the same fox only ever lead to a
+     * state that a single slide of that fox, or no slide at all, leads to, since
+     * the squares a fox may end a slide on only depend on the direction of the
+     * slide. No winning state is thus out of reach, nor any further away, in this
+     * mode. Rabbits may jump again, as a single jump cannot replace two.
+     *
+     * @param moves      The buffer to write the packed moves into. Must have room
+     *                   for {@link Board#MAX_MOVES} moves.
+     * @param lastSquare The square the last move ended on, or -1 if there was none
+     * @return The number of moves written into the buffer
+     */
+    public int getPossibleMoves(int[] moves, int lastSquare) {
+        int occupied = occupied();
+        int excluded = mushrooms();
+        if (lastSquare != -1 && (codeAt(lastSquare) & FOX) != 0) {
+            int other = pairedHalf(lastSquare, codeAt(lastSquare));
+            excluded |= 1 << lastSquare | (other != -1 ? 1 << other : 0);
+        }
+        int count = 0;
+        for (int movable = occupied & ~excluded; movable != 0; movable &= movable - 1) {
+            int square = Integer.numberOfTrailingZeros(movable);
+            int code = codeAt(square);
+            count = (code & FOX) != 0 ? MoveTables.foxMoves(square, code, occupied, moves, count) :
+                    MoveTables.rabbitMoves(square, occupied, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Writes every move undoing a possible move of a predecessor of this state as
+     * packed moves into the specified buffer. Making one of these moves leads to a
+     * state from which a possible move leads back to this state. Since rabbit jumps
+     * can always be undone by a jump, only fox slides differ from
+     * {@link #getPossibleMoves(int[])}.
+     *
+     * @param moves The buffer to write the packed moves into. Must have room for
+     *              {@link Board#MAX_MOVES} moves.
+     * @return The number of moves written into the buffer
+     */
+    public int getReverseMoves(int[] moves) {
+        int occupied = occupied();
+        int count = 0;
+        for (int movable = occupied & ~mushrooms(); movable != 0; movable &= movable - 1) {
+            int square = Integer.numberOfTrailingZeros(movable);
+            int code = codeAt(square);
+            count = (code & FOX) != 0 ?
+                    MoveTables.foxReverseMoves(square, code, pairedHalf(square, code), occupied, moves, count) :
+                    MoveTables.rabbitMoves(square, occupied, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the square of the other half of the fox half on the specified square,
+     * provided that the other half is on the board.
+     *
+     * @param square The square of the fox half
+     * @param code   The code of the fox half
+     * @return The square of the other half, or -1 if the fox half is alone
+     */
+    private int pairedHalf(int square, int code) {
+        int other = otherHalf(square, code);
+        return other != -1 && codeAt(other) == (code ^ HEAD) ? other : -1;
+    }
+
+    /**
+     * Determines every winning state made of the pieces of this state. Mushrooms
+     * stay where they are, every fox stays on the row or column it can slide along,
+     * and every rabbit is in a hole. Every winning state reachable from this state
+     * is therefore part of the returned set.
+     *
+     * @return The winning states made of the pieces of this state. Empty if there is
+     * no rabbit, or more rabbits than holes free of mushrooms.
+     */
+    public Set<BoardState> getWinningStates() {
+        Set<BoardState> states = new HashSet<>();
+        int[] rabbitCodes = new int[Integer.bitCount(rabbits())];
+        int index = 0;
+        for (int rabbits = rabbits(); rabbits != 0; rabbits &= rabbits - 1) {
+            rabbitCodes[index++] = codeAt(Integer.numberOfTrailingZeros(rabbits));
+        }
+        if (rabbitCodes.length == 0) {
+            return states;
+        }
+
+        // Every fox is placed as a unit made of its head (or a lone half) and its tail
+        List<int[]> foxes = new ArrayList<>();
+        for (int halves = foxes(); halves != 0; halves &= halves - 1) {
+            int square = Integer.numberOfTrailingZeros(halves);
+            int code = codeAt(square);
+            int other = pairedHalf(square, code);
+            if (other == -1 || (code & HEAD) != 0) {
+                foxes.add(new int[]{square, other});
+            }
+        }
+
+        int[] goal = new int[SQUARES];
+        for (int mushrooms = mushrooms(); mushrooms != 0; mushrooms &= mushrooms - 1) {
+            goal[Integer.numberOfTrailingZeros(mushrooms)] = MUSHROOM;
+        }
+        placeFoxes(foxes, 0, rabbitCodes, goal, mushrooms(), states);
+        return states;
+    }
+
+    /**
+     * Places the specified foxes, from the specified one onwards, at every position
+     * along their row or column, and then places the rabbits in the holes.
+     *
+     * @param foxes       The squares of the two halves of every fox, the second
+     *                    being -1 for a lone half
+     * @param index       The index of the fox to place
+     * @param rabbitCodes The codes of the rabbits to place
+     * @param goal        The codes of the state being built, indexed by square
+     * @param occupied    The mask of the squares occupied so far
+     * @param states      The set the resulting winning states are added to
+     */
+    private void placeFoxes(List<int[]> foxes, int index, int[] rabbitCodes, int[] goal, int occupied,
+                            Set<BoardState> states) {
+        if (index == foxes.size()) {
+            placeRabbits(rabbitCodes, 0, goal, occupied, states);
+            return;
+        }
+        int square = foxes.get(index)[0];
+        int other = foxes.get(index)[1];
+        Fox.Direction direction = direction(codeAt(square));
+        boolean horizontal = direction == Fox.Direction.LEFT || direction == Fox.Direction.RIGHT;
+        int low = horizontal ? x(square) : y(square);
+        int high = low;
+        if (other != -1) {
+            low = Math.min(low, horizontal ? x(other) : y(other));
+            high = Math.max(high, horizontal ? x(other) : y(other));
+        }
+        for (int offset = -low; offset < Board.SIZE - high; offset++) {
+            int shift = horizontal ? offset * Board.SIZE : offset;
+            int mask = 1 << (square + shift) | (other != -1 ? 1 << (other + shift) : 0);
+            if ((occupied & mask) != 0) {
+                continue;
+            }
+            goal[square + shift] = codeAt(square);
+            if (other != -1) {
+                goal[other + shift] = codeAt(other);
+            }
+            placeFoxes(foxes, index + 1, rabbitCodes, goal, occupied | mask, states);
+            goal[square + shift] = EMPTY;
+            if (other != -1) {
+                goal[other + shift] = EMPTY;
+            }
+        }
+    }
+
+    /**
+     * Places the specified rabbits, from the specified one onwards, in every
+     * combination of free holes.
+     *
+     * @param rabbitCodes The codes of the rabbits to place
+     * @param index       The index of the rabbit to place
+     * @param goal        The codes of the state being built, indexed by square
+     * @param occupied    The mask of the squares occupied so far
+     * @param states      The set the resulting winning states are added to
+     */
+    private static void placeRabbits(int[] rabbitCodes, int index, int[] goal, int occupied,
+                                     Set<BoardState> states) {
+        if (index == rabbitCodes.length) {
+            states.add(pack(goal));
+            return;
+        }
+        for (int holes = HOLES & ~occupied; holes != 0; holes &= holes - 1) {
+            int square = Integer.numberOfTrailingZeros(holes);
+            goal[square] = rabbitCodes[index];
+            placeRabbits(rabbitCodes, index + 1, goal, occupied | 1 << square, states);
+            goal[square] = EMPTY;
+        }
+    }
+
+    /**
+     * Creates the state reached by making the specified move. The move is expected
+     * to be one of the possible moves of this state; when a fox half moves, its
+     * other half follows it.
+     *
+     * @param move The packed move to make
+     * @return The state after the move
+     */
+    public BoardState move(int move) {
+        int start = Move.start(move);
+        int end = Move.end(move);
+        int code = codeAt(start);
+        long newLow = low & ~LOW_SQUARE_BITS[start];
+        long newHigh = high & ~HIGH_SQUARE_BITS[start];
+        if ((code & FOX) != 0) {
+            int other = otherHalf(start, code);
+            if (other != -1 && codeAt(other) == (code ^ HEAD)) {
+                // Both halves are lifted before being placed, as their squares may overlap
+                int otherEnd = other + end - start;
+                newLow = (newLow & ~LOW_SQUARE_BITS[other]) | lowBits(otherEnd, code ^ HEAD);
+                newHigh = (newHigh & ~HIGH_SQUARE_BITS[other]) | highBits(otherEnd, code ^ HEAD);
+            }
+        }
+        return new BoardState(newLow | lowBits(end, code), newHigh | highBits(end, code));
+    }
+
+    /**
+     * Checks to see if this state is a winning one, following the same rules as
+     * {@link Board#isInWinningState()}.
+     *
+     * @return True if there is at least one rabbit and all rabbits are in holes,
+     * false otherwise
+     */
+    public boolean isInWinningState() {
+        int rabbits = rabbits();
+        return rabbits != 0 && (rabbits & ~HOLES) == 0;
+    }
+
+    /**
+     * Determines whether this state is a deadlock, from which no winning state can
+     * ever be reached, by looking at the pieces that can never move again.
+     * Mushrooms never move, and neither does a fox whose every slide is blocked by
+     * mushrooms, the edges of the board or other such foxes; these pieces occupy
+     * their squares for good. This state is then a deadlock if it has no rabbit, if
+     * it has more rabbits than holes that are not occupied for good, or if a rabbit
+     * out of a hole can never reach one of these holes, be it because the squares
+     * it could land on are occupied for good or because nothing could ever be next
+     * to it for it to jump over. Deadlocks are only detected when they are certain,
+     * so a state that is not a deadlock may still never be solved.
+     *
+     * @return True if no winning state can be reached from this state, false if
+     * one may be
+     */
+    public boolean isDead() {
+        int rabbits = rabbits();
+        if (rabbits == 0) {
+            return true;
+        } else if ((rabbits & ~HOLES) == 0) {
+            return false;
+        }
+
+        // Foxes that cannot slide now can only slide later if an obstacle of theirs moves
+        int obstacles = mushrooms();
+        for (boolean stuck = true; stuck; ) {
+            stuck = false;
+            for (int halves = foxes() & ~obstacles; halves != 0; halves &= halves - 1) {
+                int square = Integer.numberOfTrailingZeros(halves);
+                int code = codeAt(square);
+                int other = pairedHalf(square, code);
+                if (!MoveTables.canEverSlide(square, code, obstacles) &&
+                        (other == -1 || !MoveTables.canEverSlide(other, codeAt(other), obstacles))) {
+                    obstacles |= 1 << square | (other != -1 ? 1 << other : 0);
+                    stuck = true;
+                }
+            }
+        }
+
+        if (Integer.bitCount(rabbits) > Integer.bitCount(HOLES & ~obstacles)) {
+            return true;
+        }
+        int strayRabbits = rabbits & ~HOLES;
+        if (Integer.bitCount(occupied() & ~obstacles) == 1) {
+            // The only piece that can move is a rabbit, which can only jump over obstacles
+            return (MoveTables.squaresReachedAlone(Integer.numberOfTrailingZeros(strayRabbits), obstacles) &
+                    HOLES) == 0;
+        }
+        return (strayRabbits & ~MoveTables.squaresReachingHole(obstacles)) != 0;
+    }
+
+    /**
+     * Determines the canonical state of the class of states equivalent to this
+     * state. Two states are equivalent if one is the image of the other by a
+     * symmetry of the game, up to the colours of the rabbits and the identifiers
+     * of the foxes, which play no part in how pieces move or in winning. Equivalent
+     * states are at the same distance from a winning state, and the moves of one
+     * map to the moves of the other.
+     *
+     * @return The canonical state equivalent to this state
+     */
+    public BoardState getCanonicalState() {
+        return getCanonicalState(null);
+    }
+
+    /**
+     * Determines the canonical state of the class of states equivalent to this
+     * state (see {@link #getCanonicalState()}), along with the symmetry mapping
+     * this state onto it.
+     *
+     * @param symmetry A buffer receiving the index of the symmetry as its first
+     *                 element, to be used with {@link #getSymmetricSquare(int, int)},
+     *                 or null
+     * @return The canonical state equivalent to this state
+     */
+    public BoardState getCanonicalState(int[] symmetry) {
+        int[] codes = unpack();
+        for (int square = 0; square < SQUARES; square++) {
+            if ((codes[square] & FOX) != 0) {
+                codes[square] &= ~ID;
+            } else if ((codes[square] & RABBIT) != 0) {
+                codes[square] = RABBIT;
+            }
+        }
+
+        BoardState canonical = null;
+        int[] image = new int[SQUARES];
+        for (int index = 0; index < SYMMETRIES; index++) {
+            for (int square = 0; square < SQUARES; square++) {
+                int code = codes[square];
+                if ((code & FOX) != 0) {
+                    code = code & ~(3 << 2) | SYMMETRY_DIRECTIONS[index][code >> 2 & 3] << 2;
+                }
+                image[SYMMETRY_SQUARES[index][square]] = code;
+            }
+            BoardState state = pack(image);
+            if (canonical == null || Long.compareUnsigned(state.high, canonical.high) < 0 ||
+                    (state.high == canonical.high && Long.compareUnsigned(state.low, canonical.low) < 0)) {
+                canonical = state;
+                if (symmetry != null) {
+                    symmetry[0] = index;
+                }
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * @param symmetry The index of a symmetry, as received from
+     *                 {@link #getCanonicalState(int[])}
+     * @param square   The index of a square
+     * @return The index of the square the specified square is mapped to by the
+     * symmetry
+     */
+    public static int getSymmetricSquare(int symmetry, int square) {
+        return SYMMETRY_SQUARES[symmetry][square];
+    }
+
+    /**
+     * Determines a lower bound on the number of moves needed to reach a winning
+     * state from this state. Every move moves at most one rabbit, so the minimum
+     * number of jumps each rabbit needs to reach a hole, regardless of the pieces
+     * it would have to jump over, adds up to a lower bound. Since a move changes
+     * this bound by at most one, it is also consistent.
+     *
+     * @return A lower bound on the number of moves needed to win
+     */
+    public int getMinimumMovesToWin() {
+        int moves = 0;
+        for (int rabbits = rabbits() & ~HOLES; rabbits != 0; rabbits &= rabbits - 1) {
+            moves += MoveTables.jumpsToHole(Integer.numberOfTrailingZeros(rabbits));
+        }
+        return moves;
+    }
+
+    /**
+     * Creates a new board with the pieces described by this state.
+     *
+     * @param name The name of the new board
+     * @return The newly created board
+     */
+    public Board toBoard(String name) {
+        Board board = new Board(name);
+        for (int square = 0; square < SQUARES; square++) {
+            Piece piece = Piece.of(codeAt(square));
+            if (piece != null) {
+                board.setPiece(piece, x(square), y(square));
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Create a String of this state, identical to the String representation of
+     * the board it describes.
+     *
+     * @return A String representation of this state
+     */
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        for (int square = 0; square < SQUARES; square++) {
+            int code = codeAt(square);
+            if ((code & FOX) != 0) {
+                str.append('F').append((code & HEAD) != 0 ? 'H' : 'T').append(direction(code).toString().charAt(0))
+                        .append((code & ID) != 0 ? 1 : 0);
+            } else if (code == MUSHROOM) {
+                str.append("MU");
+            } else if ((code & RABBIT) != 0) {
+                str.append("RB").append(Rabbit.RabbitColour.values()[code >> 3].toString().charAt(0));
+            } else {
+                str.append(Board.EMPTY);
+            }
+            str.append(' ');
+        }
+        return str.toString().trim();
+    }
+}
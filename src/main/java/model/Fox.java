@@ -5,9 +5,6 @@ import lombok.experimental.Accessors;
 import util.Move;
 import util.Move.MoveDirection;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * A class representing a Fox piece.
  *
@@ -42,13 +39,14 @@ public class Fox extends Piece implements MovablePiece {
     private final boolean id;
 
     /**
-     * Construct a new Fox
+     * Construct a new Fox. Only called once per direction and id, to create the
+     * interned foxes.
      *
      * @param direction The direction given for the Fox
      * @param id        The id of the fox, used to differentiate foxes
      */
-    public Fox(Direction direction, boolean id) {
-        super(PieceType.FOX);
+    Fox(Direction direction, boolean id) {
+        super(PieceType.FOX, BoardState.FOX | BoardState.HEAD | direction.ordinal() << 2 | (id ? BoardState.ID : 0));
         this.foxType = FoxType.HEAD;
         this.direction = direction;
         this.id = id;
@@ -64,19 +62,31 @@ public class Fox extends Piece implements MovablePiece {
      * @param head      The head of this Fox's tail.
      */
     private Fox(Direction direction, boolean id, Fox head) {
-        super(PieceType.FOX);
+        super(PieceType.FOX, head.getCode() ^ BoardState.HEAD);
         this.foxType = FoxType.TAIL;
         this.direction = direction;
         this.id = id;
         this.otherHalf = head;
     }
 
+    /**
+     * Returns the head of the fox with the specified direction and id. Its tail is
+     * obtained through {@link #getOtherHalf()}.
+     *
+     * @param direction The direction of the Fox
+     * @param id        The id of the fox, used to differentiate foxes
+     * @return The interned head of that fox
+     */
+    public static Fox of(Direction direction, boolean id) {
+        return (Fox) Piece.of(BoardState.FOX | BoardState.HEAD | direction.ordinal() << 2 | (id ? BoardState.ID : 0));
+    }
+
     /**
      * Factory method to create a Fox based on the based String. For example, the
      * String should be of the form "FHU1".
      *
      * @param str The String to build the Fox from. Must be of length 4.
-     * @return A newly created Fox based on the passed String.
+     * @return The interned Fox head described by the passed String.
      */
     static Fox createFox(String str) {
         if (str == null || str.length() != 4) return null;
@@ -95,7 +105,7 @@ public class Fox extends Piece implements MovablePiece {
             default:
                 dir = Direction.DOWN;
         }
-        return new Fox(dir, str.startsWith("1", 3));
+        return of(dir, str.startsWith("1", 3));
     }
 
     /**
@@ -259,42 +269,9 @@ public class Fox extends Piece implements MovablePiece {
     }
 
     @Override
-    public List<Move> getPossibleMoves(Board board, int x, int y) {
-        List<Move> moves = new ArrayList<>();
-
-        if ((foxType == FoxType.TAIL && direction == Direction.LEFT) ||
-                (foxType == FoxType.HEAD && direction == Direction.RIGHT)) {
-            for (int i = x + 1; i < Board.SIZE; i++) {
-                Move moveX = new Move(x, y, i, y);
-                if (validatePath(moveX, board, false)) {
-                    moves.add(moveX);
-                }
-            }
-        } else if ((foxType == FoxType.TAIL && direction == Direction.RIGHT) ||
-                (foxType == FoxType.HEAD && direction == Direction.LEFT)) {
-            for (int i = x - 1; i >= 0; i--) {
-                Move moveX = new Move(x, y, i, y);
-                if (validatePath(moveX, board, true)) {
-                    moves.add(moveX);
-                }
-            }
-        } else if ((foxType == FoxType.TAIL && direction == Direction.UP) ||
-                (foxType == FoxType.HEAD && direction == Direction.DOWN)) {
-            for (int i = y + 1; i < Board.SIZE; i++) {
-                Move moveY = new Move(x, y, x, i);
-                if (validatePath(moveY, board, true)) {
-                    moves.add(moveY);
-                }
-            }
-        } else {
-            for (int i = y - 1; i >= 0; i--) {
-                Move moveY = new Move(x, y, x, i);
-                if (validatePath(moveY, board, getRelativeLocation())) {
-                    moves.add(moveY);
-                }
-            }
-        }
-        return moves;
+    public int getPossibleMoves(Board board, int x, int y, int[] moves, int count) {
+        return MoveTables.foxMoves(BoardState.square(x, y), BoardState.codeOf(this), board.getOccupancy(), moves,
+                count);
     }
 
     /**
@@ -2,6 +2,7 @@ package model;
 
 import util.Move;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -11,6 +12,11 @@ import java.util.List;
  */
 public interface MovablePiece {
 
+    /**
+     * The maximum number of moves that a single piece can have.
+     */
+    int MAX_MOVES = 4;
+
     /**
      * Moves the piece according to the specified move on the specified board.
      *
@@ -34,5 +40,30 @@ public interface MovablePiece {
      * @return The list of possible Move objects that this piece can make given the
      * specified board
      */
-    List<Move> getPossibleMoves(Board board, int x, int y);
+    default List<Move> getPossibleMoves(Board board, int x, int y) {
+        int[] moves = new int[MAX_MOVES];
+        int count = getPossibleMoves(board, x, y, moves, 0);
+        List<Move> moveList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moveList.add(Move.unpack(moves[i]));
+        }
+        return moveList;
+    }
+
+    /**
+     * Determines all possible moves for this piece on the specified board, at the
+     * specified position, and writes them as packed moves (see
+     * {@link Move#pack(int, int)}) into the specified buffer.
+     *
+     * @param board The board on which possible moves should be determined
+     * @param x     The x position of the current piece from which possible moves
+     *              are to be determined
+     * @param y     The y position of the current piece from which possible moves
+     *              are to be determined
+     * @param moves The buffer to write the packed moves into, starting at index
+     *              count. Must have room for {@link #MAX_MOVES} more moves.
+     * @param count The number of moves already in the buffer
+     * @return The number of moves in the buffer once this piece's moves are added
+     */
+    int getPossibleMoves(Board board, int x, int y, int[] moves, int count);
 }
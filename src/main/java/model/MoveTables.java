@@ -0,0 +1,349 @@
+package model;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import util.Move;
+
+import java.util.Arrays;
+
+/**
+ * This class holds precomputed per-square ray tables used to generate rabbit
+ * jumps and fox slides from an occupancy bitmask, without scanning the board
+ * tile by tile. Squares and masks follow the conventions of {@link BoardState},
+ * and directions are indexed by the ordinals of {@link Fox.Direction}.
+ *
+ * @author Samuel Gamelin
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class MoveTables {
+
+    /**
+     * For every square and direction, the squares of the ray leaving that square,
+     * ordered from the nearest to the farthest.
+     */
+    private static final int[][][] RAYS = new int[BoardState.SQUARES][4][];
+
+    /**
+     * For every square and direction, the mask of the ray leaving that square.
+     */
+    private static final int[][] RAY_MASKS = new int[BoardState.SQUARES][4];
+
+    /**
+     * For every direction, the squares on which a fox half leading a slide in that
+     * direction may end. Mirrors the bounds check performed by the fox's path
+     * validation, which depends on whether the other half of the fox is to the
+     * right of or above the leading half.
+     */
+    private static final int[] SLIDE_ENDS = new int[4];
+
+    /**
+     * For every square, the minimum number of jumps a rabbit on that square needs
+     * to reach a hole, assuming there is always a piece to jump over. A rabbit
+     * always moves at least two squares along a row or a column when jumping.
+     */
+    private static final int[] JUMPS_TO_HOLE = new int[BoardState.SQUARES];
+
+    static {
+        int[] dx = {-1, 1, 0, 0};
+        int[] dy = {0, 0, -1, 1};
+        for (int square = 0; square < BoardState.SQUARES; square++) {
+            for (int direction = 0; direction < 4; direction++) {
+                int x = BoardState.x(square) + dx[direction];
+                int y = BoardState.y(square) + dy[direction];
+                int length = 0;
+                int[] ray = new int[Board.SIZE - 1];
+                while (x >= 0 && y >= 0 && x < Board.SIZE && y < Board.SIZE) {
+                    ray[length++] = BoardState.square(x, y);
+                    RAY_MASKS[square][direction] |= BoardState.bit(x, y);
+                    x += dx[direction];
+                    y += dy[direction];
+                }
+                RAYS[square][direction] = Arrays.copyOf(ray, length);
+            }
+            int x = BoardState.x(square);
+            int y = BoardState.y(square);
+            // The other half is to the right or above when sliding left or down
+            if (x <= Board.SIZE - 2 && y >= 1) {
+                SLIDE_ENDS[Fox.Direction.LEFT.ordinal()] |= 1 << square;
+                SLIDE_ENDS[Fox.Direction.DOWN.ordinal()] |= 1 << square;
+            }
+            if (x >= 1 && y <= Board.SIZE - 2) {
+                SLIDE_ENDS[Fox.Direction.RIGHT.ordinal()] |= 1 << square;
+                SLIDE_ENDS[Fox.Direction.UP.ordinal()] |= 1 << square;
+            }
+        }
+
+        // Breadth-first search from the holes, every relaxed jump being reversible
+        Arrays.fill(JUMPS_TO_HOLE, -1);
+        int[] queue = new int[BoardState.SQUARES];
+        int tail = 0;
+        for (int holes = BoardState.HOLES; holes != 0; holes &= holes - 1) {
+            queue[tail++] = Integer.numberOfTrailingZeros(holes);
+            JUMPS_TO_HOLE[queue[tail - 1]] = 0;
+        }
+        for (int head = 0; head < tail; head++) {
+            int square = queue[head];
+            for (int direction = 0; direction < 4; direction++) {
+                int[] ray = RAYS[square][direction];
+                for (int i = 1; i < ray.length; i++) {
+                    if (JUMPS_TO_HOLE[ray[i]] == -1) {
+                        JUMPS_TO_HOLE[ray[i]] = JUMPS_TO_HOLE[square] + 1;
+                        queue[tail++] = ray[i];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param direction The ordinal of a direction
+     * @return True if moving in the specified direction increases the square index
+     */
+    private static boolean isIncreasing(int direction) {
+        return (direction & 1) != 0;
+    }
+
+    /**
+     * Returns the squares of the ray leaving the specified square in the specified
+     * direction, ordered from the nearest to the farthest.
+     *
+     * @param square    The square the ray leaves from
+     * @param direction The ordinal of the direction of the ray
+     * @return The squares of the ray. Must not be modified.
+     */
+    static int[] ray(int square, int direction) {
+        return RAYS[square][direction];
+    }
+
+    /**
+     * Returns the minimum number of jumps a rabbit on the specified square needs to
+     * reach a hole, regardless of the other pieces.
+     *
+     * @param square The square of the rabbit
+     * @return The minimum number of jumps to a hole, zero if the square is a hole
+     */
+    static int jumpsToHole(int square) {
+        return JUMPS_TO_HOLE[square];
+    }
+
+    /**
+     * Determines the squares from which a rabbit could reach a hole, given squares
+     * that stay occupied for good. Jumps are relaxed to any landing at least two
+     * squares away along a row or a column, as if there were always pieces to jump
+     * over, but a rabbit can never land on, nor be in, a square that stays
+     * occupied. A rabbit on any other square can never reach a hole.
+     *
+     * @param obstacles The mask of the squares that stay occupied for good
+     * @return The mask of the squares from which a hole can be reached
+     */
+    static int squaresReachingHole(int obstacles) {
+        // Breadth-first search from the free holes, every relaxed jump being reversible
+        int reached = BoardState.HOLES & ~obstacles;
+        for (int frontier = reached; frontier != 0; ) {
+            int next = 0;
+            for (; frontier != 0; frontier &= frontier - 1) {
+                int square = Integer.numberOfTrailingZeros(frontier);
+                for (int direction = 0; direction < 4; direction++) {
+                    int[] ray = RAYS[square][direction];
+                    if (ray.length > 1) {
+                        next |= RAY_MASKS[square][direction] & ~(1 << ray[0]);
+                    }
+                }
+            }
+            frontier = next & ~obstacles & ~reached;
+            reached |= frontier;
+        }
+        return reached;
+    }
+
+    /**
+     * Determines the squares a rabbit on the specified square can reach when every
+     * other piece stays where it is, so that the rabbit can only jump over those
+     * pieces.
+     *
+     * @param square    The square of the rabbit
+     * @param obstacles The mask of the squares occupied by the other pieces
+     * @return The mask of the squares the rabbit can reach, its own square included
+     */
+    static int squaresReachedAlone(int square, int obstacles) {
+        int reached = 1 << square;
+        for (int frontier = reached; frontier != 0; ) {
+            int next = 0;
+            for (; frontier != 0; frontier &= frontier - 1) {
+                int from = Integer.numberOfTrailingZeros(frontier);
+                for (int direction = 0; direction < 4; direction++) {
+                    int landing = rabbitJump(from, direction, obstacles);
+                    if (landing != -1) {
+                        next |= 1 << landing;
+                    }
+                }
+            }
+            frontier = next & ~reached;
+            reached |= frontier;
+        }
+        return reached;
+    }
+
+    /**
+     * Determines whether the fox half on the specified square could ever lead a
+     * slide, given squares that stay occupied for good. Other pieces can only ever
+     * block more of its slides.
+     *
+     * @param square    The square of the fox half
+     * @param code      The code of the fox half, as defined by {@link BoardState}
+     * @param obstacles The mask of the squares that stay occupied for good
+     * @return True if the fox half could lead a slide, false otherwise
+     */
+    static boolean canEverSlide(int square, int code, int obstacles) {
+        return foxSlides(square, leadingDirection(code), obstacles) != 0;
+    }
+
+    /**
+     * Determines where a rabbit jumping from the specified square in the specified
+     * direction lands. A rabbit must jump over at least one piece and lands on the
+     * first empty square after the pieces it jumps over.
+     *
+     * @param square    The square of the rabbit
+     * @param direction The ordinal of the direction of the jump
+     * @param occupied  The mask of occupied squares
+     * @return The square the rabbit lands on, or -1 if no such jump exists
+     */
+    static int rabbitJump(int square, int direction, int occupied) {
+        int[] ray = RAYS[square][direction];
+        if (ray.length == 0 || (occupied & 1 << ray[0]) == 0) {
+            return -1;
+        }
+        int empty = RAY_MASKS[square][direction] & ~occupied;
+        if (empty == 0) {
+            return -1;
+        }
+        return isIncreasing(direction) ? Integer.numberOfTrailingZeros(empty) :
+                31 - Integer.numberOfLeadingZeros(empty);
+    }
+
+    /**
+     * Determines every square on which a fox half can end a slide from the
+     * specified square in the specified direction, the half leading the slide.
+     *
+     * @param square    The square of the leading fox half
+     * @param direction The ordinal of the direction of the slide
+     * @param occupied  The mask of occupied squares
+     * @return The mask of squares the leading half can end on
+     */
+    static int foxSlides(int square, int direction, int occupied) {
+        return freeSquares(square, direction, occupied) & SLIDE_ENDS[direction];
+    }
+
+    /**
+     * Determines the squares of the ray leaving the specified square in the
+     * specified direction that come before the first occupied square.
+     *
+     * @param square    The square the ray leaves from
+     * @param direction The ordinal of the direction of the ray
+     * @param occupied  The mask of occupied squares
+     * @return The mask of the free squares
+     */
+    private static int freeSquares(int square, int direction, int occupied) {
+        int ray = RAY_MASKS[square][direction];
+        int blockers = ray & occupied;
+        if (blockers == 0) {
+            return ray;
+        }
+        return ray & (isIncreasing(direction) ? Integer.lowestOneBit(blockers) - 1 :
+                -(Integer.highestOneBit(blockers) << 1));
+    }
+
+    /**
+     * @param code The code of a fox half, as defined by {@link BoardState}
+     * @return The ordinal of the direction of the slides the fox half leads
+     */
+    private static int leadingDirection(int code) {
+        return BoardState.direction(code).ordinal() ^ ((code & BoardState.HEAD) != 0 ? 0 : 1);
+    }
+
+    /**
+     * Writes every jump of the rabbit on the specified square as packed moves into
+     * the specified buffer. Jumps are listed by increasing end coordinate,
+     * horizontal jumps first.
+     *
+     * @param square   The square of the rabbit
+     * @param occupied The mask of occupied squares
+     * @param moves    The buffer to write the packed moves into
+     * @param count    The number of moves already in the buffer
+     * @return The number of moves in the buffer once the jumps are added
+     */
+    static int rabbitMoves(int square, int occupied, int[] moves, int count) {
+        int x = BoardState.x(square);
+        int y = BoardState.y(square);
+        int left = rabbitJump(square, Fox.Direction.LEFT.ordinal(), occupied);
+        int right = rabbitJump(square, Fox.Direction.RIGHT.ordinal(), occupied);
+        int up = rabbitJump(square, Fox.Direction.UP.ordinal(), occupied);
+        int down = rabbitJump(square, Fox.Direction.DOWN.ordinal(), occupied);
+
+        for (int i = 0; i < Board.SIZE; i++) {
+            if ((left != -1 && BoardState.x(left) == i) || (right != -1 && BoardState.x(right) == i)) {
+                moves[count++] = Move.pack(square, BoardState.square(i, y));
+            }
+            if ((up != -1 && BoardState.y(up) == i) || (down != -1 && BoardState.y(down) == i)) {
+                moves[count++] = Move.pack(square, BoardState.square(x, i));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes every slide that the fox half on the specified square leads as packed
+     * moves into the specified buffer, from the nearest to the farthest. A head
+     * leads slides in front of itself, and a tail leads slides behind itself.
+     *
+     * @param square   The square of the fox half
+     * @param code     The code of the fox half, as defined by {@link BoardState}
+     * @param occupied The mask of occupied squares
+     * @param moves    The buffer to write the packed moves into
+     * @param count    The number of moves already in the buffer
+     * @return The number of moves in the buffer once the slides are added
+     */
+    static int foxMoves(int square, int code, int occupied, int[] moves, int count) {
+        int direction = leadingDirection(code);
+        int ends = foxSlides(square, direction, occupied);
+        for (int end : RAYS[square][direction]) {
+            if ((ends & 1 << end) != 0) {
+                moves[count++] = Move.pack(square, end);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes every move of the fox half on the specified square that undoes a slide
+     * as packed moves into the specified buffer, from the nearest to the farthest.
+     * Making such a move leads to a state from which the undone slide is possible.
+     * A fox half with its other half undoes the slides its other half leads by
+     * moving in the direction it leads itself, while a lone fox half undoes its own
+     * slides by moving backwards.
+     *
+     * @param square   The square of the fox half
+     * @param code     The code of the fox half, as defined by {@link BoardState}
+     * @param other    The square of the other half of the fox, or -1 if there is
+     *                 none
+     * @param occupied The mask of occupied squares
+     * @param moves    The buffer to write the packed moves into
+     * @param count    The number of moves already in the buffer
+     * @return The number of moves in the buffer once the moves are added
+     */
+    static int foxReverseMoves(int square, int code, int other, int occupied, int[] moves, int count) {
+        int undone = leadingDirection(code) ^ (other != -1 ? 1 : 0);
+        // The half that led the undone slide must have been allowed to end it where it is
+        if ((SLIDE_ENDS[undone] & 1 << (other != -1 ? other : square)) == 0) {
+            return count;
+        }
+        int direction = undone ^ 1;
+        int ends = freeSquares(square, direction, occupied);
+        for (int end : RAYS[square][direction]) {
+            if ((ends & 1 << end) != 0) {
+                moves[count++] = Move.pack(square, end);
+            }
+        }
+        return count;
+    }
+}
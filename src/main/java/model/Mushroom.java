@@ -9,10 +9,17 @@ package model;
 public class Mushroom extends Piece {
 
     /**
-     * Construct a new mushroom.
+     * Construct a new mushroom. Only called once, to create the interned mushroom.
      */
-    public Mushroom() {
-        super(PieceType.MUSHROOM);
+    Mushroom() {
+        super(PieceType.MUSHROOM, BoardState.MUSHROOM);
+    }
+
+    /**
+     * @return The interned mushroom
+     */
+    public static Mushroom of() {
+        return (Mushroom) Piece.of(BoardState.MUSHROOM);
     }
 
     @Override
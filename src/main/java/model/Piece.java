@@ -1,20 +1,40 @@
 package model;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 /**
- * This abstract class provides a high-level prototype for a piece.
+ * This abstract class provides a high-level prototype for a piece. Pieces are
+ * immutable and interned: there is a single instance of every kind of piece,
+ * addressed by its code as used by {@link BoardState}. Pieces can thus be shared
+ * between boards and compared by identity.
  *
  * @author Abdalla El Nakla
  * @author Samuel Gamelin
  */
 @Getter
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public abstract class Piece {
 
     private final PieceType pieceType;
 
+    /**
+     * The code of this piece, as used by {@link BoardState}. No two kinds of piece
+     * share the same code.
+     */
+    private final int code;
+
+    /**
+     * Returns the piece with the specified code.
+     *
+     * @param code The code of the piece, as used by {@link BoardState}
+     * @return The interned piece with that code, or null if no piece has that code
+     */
+    public static Piece of(int code) {
+        return code >= 0 && code < PieceTable.PIECES.length ? PieceTable.PIECES[code] : null;
+    }
+
     /**
      * Generates a short string representing this piece.
      *
@@ -28,4 +48,38 @@ public abstract class Piece {
     public enum PieceType {
         FOX, MUSHROOM, RABBIT
     }
+
+    /**
+     * The table of interned pieces, indexed by code. Kept in its own class so that
+     * it is only created once the piece classes are initialized.
+     */
+    private static final class PieceTable {
+
+        /**
+         * The interned pieces, indexed by code. Codes that no piece has map to null.
+         */
+        private static final Piece[] PIECES = createPieces();
+
+        /**
+         * Creates one instance of every kind of piece.
+         *
+         * @return The pieces, indexed by code
+         */
+        private static Piece[] createPieces() {
+            Piece[] pieces = new Piece[32];
+            pieces[BoardState.MUSHROOM] = new Mushroom();
+            for (Rabbit.RabbitColour colour : Rabbit.RabbitColour.values()) {
+                Rabbit rabbit = new Rabbit(colour);
+                pieces[rabbit.getCode()] = rabbit;
+            }
+            for (Fox.Direction direction : Fox.Direction.values()) {
+                for (boolean id : new boolean[]{false, true}) {
+                    Fox head = new Fox(direction, id);
+                    pieces[head.getCode()] = head;
+                    pieces[head.getOtherHalf().getCode()] = head.getOtherHalf();
+                }
+            }
+            return pieces;
+        }
+    }
 }
@@ -4,9 +4,6 @@ import lombok.Getter;
 import util.Move;
 import util.Move.MoveDirection;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * A class representing a Rabbit piece.
  *
@@ -23,21 +20,32 @@ public class Rabbit extends Piece implements MovablePiece {
     private final RabbitColour colour;
 
     /**
-     * Constructs a new Rabbit.
+     * Constructs a new Rabbit. Only called once per colour, to create the interned
+     * rabbits.
      *
      * @param colour the colour of the rabbit
      */
-    public Rabbit(RabbitColour colour) {
-        super(PieceType.RABBIT);
+    Rabbit(RabbitColour colour) {
+        super(PieceType.RABBIT, BoardState.RABBIT | colour.ordinal() << 3);
         this.colour = colour;
     }
 
+    /**
+     * Returns the rabbit of the specified colour.
+     *
+     * @param colour the colour of the rabbit
+     * @return The interned rabbit of that colour
+     */
+    public static Rabbit of(RabbitColour colour) {
+        return (Rabbit) Piece.of(BoardState.RABBIT | colour.ordinal() << 3);
+    }
+
     /**
      * Factory method to create a Rabbit based on the based String. For example, the
      * String should be of the form "RBG".
      *
      * @param str The String to build the Rabbit from. Must be of length 3.
-     * @return A newly created Rabbit based on the passed String.
+     * @return The interned Rabbit described by the passed String.
      */
     static Rabbit createRabbit(String str) {
         if (str == null || str.length() != 3) {
@@ -55,7 +63,7 @@ public class Rabbit extends Piece implements MovablePiece {
             default:
                 col = RabbitColour.WHITE;
         }
-        return new Rabbit(col);
+        return of(col);
     }
 
     /**
@@ -140,19 +148,8 @@ public class Rabbit extends Piece implements MovablePiece {
     }
 
     @Override
-    public List<Move> getPossibleMoves(Board board, int x, int y) {
-        List<Move> moves = new ArrayList<>();
-        for (int i = 0; i < Board.SIZE; i++) {
-            Move moveX = new Move(x, y, i, y);
-            Move moveY = new Move(x, y, x, i);
-            if (i != x && !board.isOccupied(moveX.xEnd, moveX.yEnd) && validatePath(moveX, board)) {
-                moves.add(moveX);
-            }
-            if (i != y && !board.isOccupied(moveY.xEnd, moveY.yEnd) && validatePath(moveY, board)) {
-                moves.add(moveY);
-            }
-        }
-        return moves;
+    public int getPossibleMoves(Board board, int x, int y, int[] moves, int count) {
+        return MoveTables.rabbitMoves(BoardState.square(x, y), board.getOccupancy(), moves, count);
     }
 
     /**
@@ -8,15 +8,18 @@ import controller.GameController.ClickValidity;
 import lombok.extern.log4j.Log4j;
 import model.Board;
 import model.BoardListener;
+import model.MovablePiece;
 import util.Move;
+import util.MoveList;
 import util.Resources;
+import util.SolveResult;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
 import java.nio.charset.Charset;
-import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class represents the view with which the user interacts in order to play
@@ -35,6 +38,11 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
 
     private final JButton[][] buttons;
 
+    /**
+     * A buffer holding the possible moves of the selected piece, as packed moves.
+     */
+    private final int[] possibleMoves = new int[MovablePiece.MAX_MOVES];
+
     /**
      * The controller associated with this view.
      */
@@ -54,10 +62,21 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
     private boolean gameState;
 
     /**
-     * Stores the next best move for the current board. Determined as soon as
-     * the board is loaded.
+     * The pending search for the hint of the current board, or null if there is
+     * none. Cancelled as soon as the board changes, so that stale searches stop.
+     */
+    private CompletableFuture<SolveResult> hint;
+
+    /**
+     * The pending speculative search for the hints of the boards the current board
+     * leads to, or null if there is none.
      */
-    private Move bestMove;
+    private CompletableFuture<Void> speculation;
+
+    /**
+     * True if the hint should be shown as soon as its search completes.
+     */
+    private boolean hintRequested;
 
     /**
      * Creates the application GUI.
@@ -85,10 +104,6 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
         menuBar.add(menuHelp = GUIUtilities.createMenuBarButton("Help", false));
         menuBar.add(menuQuit = GUIUtilities.createMenuBarButton("<html><u>Q</u>uit</html>", true));
 
-        // Generate the hints as soon as possible to minimize waiting time.
-        Thread hintThread = new Thread(this, "Hint");
-        hintThread.start();
-
         setContentPane(new JLabel(Resources.BOARD));
         getContentPane().setLayout(new GridLayout(5, 5));
 
@@ -112,10 +127,12 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
 
                     // Highlights all possible moves for the selected piece.
                     if (showPossibleMovesBox.isSelected()) {
-                        gameController.getPossibleMoves(xCopy, yCopy).parallelStream().forEach(move -> {
+                        int count = gameController.getPossibleMoves(xCopy, yCopy, possibleMoves);
+                        for (int i = 0; i < count; i++) {
+                            Move move = Move.unpack(possibleMoves[i]);
                             buttons[move.xStart][move.yStart].setBorder(GUIUtilities.HINT_BORDER_START);
                             buttons[move.xEnd][move.yEnd].setBorder(GUIUtilities.POSSIBLE_POSITION_BORDER);
-                        });
+                        }
                     }
 
                     if (clickResult == ClickValidity.VALID) {
@@ -160,10 +177,10 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
      * @param level         The current level of the game. Only applicable to
      *                      default levels. For user levels, a negative value must
      *                      be provided.
-     * @param undoMoveStack The stack of moves that can be undone
-     * @param redoMoveStack The stack of moves that can be redone
+     * @param undoMoveStack The stack of packed moves that can be undone
+     * @param redoMoveStack The stack of packed moves that can be redone
      */
-    public GameView(Board board, int level, ArrayDeque<Move> undoMoveStack, ArrayDeque<Move> redoMoveStack) {
+    public GameView(Board board, int level, MoveList undoMoveStack, MoveList redoMoveStack) {
         this(board, level);
         gameController.setUndoMoveStack(undoMoveStack);
         gameController.setRedoMoveStack(redoMoveStack);
@@ -204,8 +221,7 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
     private void resetGame() {
         board = gameController.reset();
         // Generate the hints as soon as possible to minimize waiting time.
-        Thread hintThread = new Thread(this, "Hint");
-        hintThread.start();
+        generateHint();
         board.addListener(this);
         GUIUtilities.clearButtonBorders(buttons);
         GUIUtilities.updateView(buttons, board);
@@ -238,8 +254,8 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
             JsonObject jsonObject = new JsonObject();
             jsonObject.addProperty("name", board.getName());
             jsonObject.addProperty("board", board.toString());
-            jsonObject.addProperty("undoMoves", gson.toJson(gameController.getUndoMoveStack()));
-            jsonObject.addProperty("redoMoves", gson.toJson(gameController.getRedoMoveStack()));
+            jsonObject.addProperty("undoMoves", gameController.getUndoMoveStack().toJson());
+            jsonObject.addProperty("redoMoves", gameController.getRedoMoveStack().toJson());
 
             gson.toJson(jsonObject, writer);
             return true;
@@ -249,9 +265,87 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
         }
     }
 
+    /**
+     * Starts searching for the hint of the current board in the background,
+     * cancelling the pending search, if any.
+     */
+    private void generateHint() {
+        cancelHint();
+        menuHint.setText("Generating Hint...");
+        CompletableFuture<SolveResult> future = gameController.solveAsync(states -> SwingUtilities.invokeLater(() -> {
+            if (hint != null && !hint.isDone()) {
+                menuHint.setText("Generating Hint... (" + states + " states)");
+            }
+        }));
+        hint = future;
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (hint != future) {
+                return;
+            }
+            hint = null;
+            menuHint.setText("<html><u>H</u>int</html>");
+            // Make the hint known right away whichever move the player makes next
+            if (error == null && result != null && result.getStatus() == SolveResult.Status.SOLVED) {
+                speculation = gameController.precomputeHints();
+            }
+            if (hintRequested) {
+                hintRequested = false;
+                showHint(result);
+            }
+        }));
+    }
+
+    /**
+     * Cancels the pending searches for hints, if any.
+     */
+    private void cancelHint() {
+        if (hint != null) {
+            hint.cancel(true);
+            hint = null;
+        }
+        if (speculation != null) {
+            speculation.cancel(true);
+            speculation = null;
+        }
+        hintRequested = false;
+        menuHint.setText("<html><u>H</u>int</html>");
+    }
+
+    /**
+     * Outlines the next best move of the specified result, or explains why there is
+     * none.
+     *
+     * @param result The result of solving the current board, or null if the search
+     *               failed
+     */
+    private void showHint(SolveResult result) {
+        if (result == null || result.getStatus() == SolveResult.Status.UNKNOWN) {
+            GUIUtilities.displayMessageDialog(this, "No hint could be found in time", "Hint");
+        } else if (result.getStatus() == SolveResult.Status.UNSOLVABLE) {
+            GUIUtilities.displayMessageDialog(this, "This board can no longer be solved", "Hint");
+        } else if (result.getMove().xStart != -1) {
+            Move move = result.getMove();
+            if (!buttons[move.xStart][move.yStart].getBorder().equals(GUIUtilities.SELECTED_BORDER)) {
+                buttons[move.xStart][move.yStart].setBorder(GUIUtilities.HINT_BORDER_START);
+            }
+            buttons[move.xEnd][move.yEnd].setBorder(GUIUtilities.HINT_BORDER_END);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        cancelHint();
+        super.dispose();
+    }
+
     @Override
     public void handleBoardChange() {
+        // The pending hints are for a board that no longer exists
+        cancelHint();
         GUIUtilities.updateView(buttons, board);
+        if (!board.isInWinningState()) {
+            generateHint();
+        }
         if (board.isInWinningState()) {
             if (Resources.SOLVED != null && gameState) {
                 Resources.SOLVED.start();
@@ -314,11 +408,10 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
             dispose();
             SwingUtilities.invokeLater(MainMenu::new);
         } else if (e.getSource() == menuHint) {
-            bestMove = gameController.getNextBestMove();
-            if (!buttons[bestMove.xStart][bestMove.yStart].getBorder().equals(GUIUtilities.SELECTED_BORDER)) {
-                buttons[bestMove.xStart][bestMove.yStart].setBorder(GUIUtilities.HINT_BORDER_START);
+            if (hint == null) {
+                generateHint();
             }
-            buttons[bestMove.xEnd][bestMove.yEnd].setBorder(GUIUtilities.HINT_BORDER_END);
+            hintRequested = true;
         } else if (e.getSource() == menuSaveButton) {
             int returnVal = GUIUtilities.fc.showSaveDialog(this);
             while (returnVal == JFileChooser.APPROVE_OPTION &&
@@ -383,14 +476,12 @@ public class GameView extends JFrame implements ActionListener, BoardListener, M
     public void mouseReleased(MouseEvent e) {
     }
 
+    /**
+     * Generates the hint of the board as soon as this view is scheduled on the event
+     * dispatch thread, to minimize waiting time.
+     */
     @Override
     public void run() {
-        if (Thread.currentThread().getName().equals("Hint")) {
-            menuHint.setEnabled(false);
-            menuHint.setText("Generating Hint...");
-            bestMove = gameController.getNextBestMove();
-            menuHint.setText("<html><u>H</u>int</html>");
-            menuHint.setEnabled(true);
-        }
+        generateHint();
     }
 }
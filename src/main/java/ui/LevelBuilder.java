@@ -3,9 +3,8 @@ package ui;
 import model.*;
 import model.Fox.Direction;
 import model.Rabbit.RabbitColour;
-import util.Move;
-import util.Move.MoveDirection;
 import util.Resources;
+import util.SolveResult;
 import util.Solver;
 
 import javax.swing.*;
@@ -14,6 +13,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class represents a level builder which allows the user to create and
@@ -24,6 +25,17 @@ import java.awt.event.MouseListener;
  */
 public class LevelBuilder extends JFrame implements ActionListener, MouseListener, BoardListener {
 
+    /**
+     * The maximum duration of the check that a board can be solved before saving it.
+     */
+    private static final Duration SOLVE_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The maximum number of states visited by the check that a board can be solved
+     * before saving it.
+     */
+    private static final int SOLVE_MAX_STATES = 1 << 22;
+
     /**
      * Menu Items to be added to the JMenuBar
      */
@@ -101,6 +113,11 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
      */
     private int itemToBeModifiedY;
 
+    /**
+     * The pending check that the board to save can be solved, or null.
+     */
+    private CompletableFuture<SolveResult> solvabilityCheck;
+
     public LevelBuilder() {
         board = new Board("");
         board.addListener(this);
@@ -181,39 +198,39 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
 
         if (currentIcon == Resources.FOX_HEAD_UP && y + 1 < 5 && y + 1 > -1 && !board.isOccupied(x, y + 1) &&
                 currentTile && board.tileType(x, y + 1)) {
-            Fox fox = new Fox(Direction.UP, numberOfFoxes == 1);
+            Fox fox = Fox.of(Direction.UP, numberOfFoxes == 1);
             board.setPiece(fox, x, y);
             board.setPiece(fox.getOtherHalf(), x, y + 1);
             numberOfFoxes++;
         } else if (currentIcon == Resources.FOX_TAIL_UP && y - 1 < 5 && y - 1 > -1 && !board.isOccupied(x, y - 1) &&
                 currentTile && board.tileType(x, y - 1)) {
-            Fox fox = new Fox(Direction.UP, numberOfFoxes == 1);
+            Fox fox = Fox.of(Direction.UP, numberOfFoxes == 1);
             board.setPiece(fox, x, y - 1);
             board.setPiece(fox.getOtherHalf(), x, y);
             numberOfFoxes++;
         } else if (currentIcon == Resources.FOX_HEAD_LEFT && x + 1 < 5 && x + 1 > -1 && !board.isOccupied(x + 1, y) &&
                 currentTile && board.tileType(x + 1, y)) {
-            Fox fox = new Fox(Direction.LEFT, numberOfFoxes == 1);
+            Fox fox = Fox.of(Direction.LEFT, numberOfFoxes == 1);
             board.setPiece(fox, x, y);
             board.setPiece(fox.getOtherHalf(), x + 1, y);
             numberOfFoxes++;
         } else if (currentIcon == Resources.FOX_TAIL_LEFT && x - 1 < 5 && x - 1 > -1 && !board.isOccupied(x - 1, y) &&
                 currentTile && board.tileType(x - 1, y)) {
-            Fox fox = new Fox(Direction.LEFT, numberOfFoxes == 1);
+            Fox fox = Fox.of(Direction.LEFT, numberOfFoxes == 1);
             board.setPiece(fox, x - 1, y);
             board.setPiece(fox.getOtherHalf(), x, y);
             numberOfFoxes++;
         } else if (currentIcon == Resources.RABBIT_WHITE) {
-            board.setPiece(new Rabbit(RabbitColour.WHITE), x, y);
+            board.setPiece(Rabbit.of(RabbitColour.WHITE), x, y);
             rabbitWhite.setEnabled(false);
         } else if (currentIcon == Resources.RABBIT_GRAY) {
-            board.setPiece(new Rabbit(RabbitColour.GRAY), x, y);
+            board.setPiece(Rabbit.of(RabbitColour.GRAY), x, y);
             rabbitGray.setEnabled(false);
         } else if (currentIcon == Resources.RABBIT_BROWN) {
-            board.setPiece(new Rabbit(RabbitColour.BROWN), x, y);
+            board.setPiece(Rabbit.of(RabbitColour.BROWN), x, y);
             rabbitBrown.setEnabled(false);
         } else if (currentIcon == Resources.MUSHROOM) {
-            board.setPiece(new Mushroom(), x, y);
+            board.setPiece(Mushroom.of(), x, y);
             numberOfMushrooms++;
         }
         // If all the mushrooms have been used disable the button.
@@ -368,6 +385,27 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
         }
     }
 
+    /**
+     * Asks the user for the name of the level being built, and saves it as a user
+     * level.
+     *
+     * @param level The board of the level to save, as it was when it was checked to
+     *              be solvable
+     */
+    private void saveLevel(Board level) {
+        String levelNameString;
+        do {
+            levelNameString = JOptionPane.showInputDialog("Please enter a name for the level: ");
+            if (levelNameString == null) return;
+            while (levelNameString.matches("-?\\d+"))
+                levelNameString = JOptionPane.showInputDialog("No numbers are allowed in the level name: ");
+            level.setName(levelNameString);
+        } while (!(Resources.addUserLevel(level)));
+        JPanel panel = new JPanel(new BorderLayout(0, 15));
+        panel.add(new JLabel("The board has been saved successfully"), BorderLayout.NORTH);
+        JOptionPane.showMessageDialog(this, panel, "Save", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /**
      * Updates the buttons when there is a change on the board
      */
@@ -376,6 +414,19 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
         GUIUtilities.updateView(buttons, board);
     }
 
+    /**
+     * Cancels the pending check that the board to save can be solved, if any, so
+     * that no dialog shows up once the level builder is closed.
+     */
+    @Override
+    public void dispose() {
+        if (solvabilityCheck != null) {
+            solvabilityCheck.cancel(true);
+            solvabilityCheck = null;
+        }
+        super.dispose();
+    }
+
     @Override
     public void actionPerformed(ActionEvent e) {
         if (e.getSource() == menuMainScreen &&
@@ -384,27 +435,28 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
             dispose();
             SwingUtilities.invokeLater(MainMenu::new);
         } else if (e.getSource() == saveBoard) {
-            Board boardCopy = new Board(board);
-            do {
-                Move temp = Solver.getNextBestMove(boardCopy);
-                if (temp.direction() == MoveDirection.INVALID || temp.xStart == -1) {
-                    JPanel panel = new JPanel(new BorderLayout(0, 15));
-                    panel.add(new JLabel("This board cannot be solved. Please try again!"), BorderLayout.NORTH);
-                    JOptionPane.showMessageDialog(this, panel, "Save", JOptionPane.INFORMATION_MESSAGE);
+            // Check that the board can be solved off the event dispatch thread, and save the board that was checked
+            Board level = new Board(board);
+            saveBoard.setEnabled(false);
+            CompletableFuture<SolveResult> future = Solver.solveAsync(level, Solver.Strategy.A_STAR, SOLVE_TIMEOUT,
+                    SOLVE_MAX_STATES, null);
+            solvabilityCheck = future;
+            future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                if (solvabilityCheck != future) {
+                    return;
                 }
-                boardCopy.move(temp);
-            } while ((!boardCopy.isInWinningState()));
-            String levelNameString;
-            do {
-                levelNameString = JOptionPane.showInputDialog("Please enter a name for the level: ");
-                if (levelNameString == null) return;
-                while (levelNameString.matches("-?\\d+"))
-                    levelNameString = JOptionPane.showInputDialog("No numbers are allowed in the level name: ");
-                board.setName(levelNameString);
-            } while (!(Resources.addUserLevel(board)));
-            JPanel panel = new JPanel(new BorderLayout(0, 15));
-            panel.add(new JLabel("The board has been saved successfully"), BorderLayout.NORTH);
-            JOptionPane.showMessageDialog(this, panel, "Save", JOptionPane.INFORMATION_MESSAGE);
+                solvabilityCheck = null;
+                saveBoard.setEnabled(true);
+                if (error == null && result.getStatus() == SolveResult.Status.SOLVED) {
+                    saveLevel(level);
+                    return;
+                }
+                JPanel panel = new JPanel(new BorderLayout(0, 15));
+                panel.add(new JLabel(error == null && result.getStatus() == SolveResult.Status.UNSOLVABLE ?
+                        "This board cannot be solved. Please try again!" :
+                        "Could not verify that this board can be solved. Please try again!"), BorderLayout.NORTH);
+                JOptionPane.showMessageDialog(LevelBuilder.this, panel, "Save", JOptionPane.INFORMATION_MESSAGE);
+            }));
         } else if (e.getSource() == menuHelp) {
             JPanel panel = new JPanel(new BorderLayout(0, 15));
             panel.add(new JLabel("<html><body><p style='width: 200px; text-align: justify'>" +
@@ -474,42 +526,42 @@ public class LevelBuilder extends JFrame implements ActionListener, MouseListene
                 if (board.getPiece(itemToBeModifiedX, itemToBeModifiedY) instanceof Fox) {
                     Fox oldFox = (Fox) board.getPiece(itemToBeModifiedX, itemToBeModifiedY);
                     if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_UP) {
-                        Fox fox = new Fox(Direction.DOWN, oldFox.id());
+                        Fox fox = Fox.of(Direction.DOWN, oldFox.id());
                         board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY + 1);
                         board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_UP) {
-                        Fox fox = new Fox(Direction.DOWN, oldFox.id());
+                        Fox fox = Fox.of(Direction.DOWN, oldFox.id());
                         board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
                         board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY - 1);
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_LEFT) {
-                        Fox fox = new Fox(Direction.RIGHT, oldFox.id());
+                        Fox fox = Fox.of(Direction.RIGHT, oldFox.id());
                         board.setPiece(fox, itemToBeModifiedX + 1, itemToBeModifiedY);
                         board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_LEFT) {
-                        Fox fox = new Fox(Direction.RIGHT, oldFox.id());
+                        Fox fox = Fox.of(Direction.RIGHT, oldFox.id());
                         board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
                         board.setPiece(fox.getOtherHalf(), itemToBeModifiedX - 1, itemToBeModifiedY);
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_DOWN) {
-                        Fox fox = new Fox(Direction.UP, oldFox.id());
+                        Fox fox = Fox.of(Direction.UP, oldFox.id());
                         board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY - 1);
                         board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_DOWN) {
-                        Fox fox = new Fox(Direction.UP, oldFox.id());
+                        Fox fox = Fox.of(Direction.UP, oldFox.id());
                         board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
                         board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY + 1);
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_HEAD_RIGHT) {
-                        Fox fox = new Fox(Direction.LEFT, oldFox.id());
+                        Fox fox = Fox.of(Direction.LEFT, oldFox.id());
                         board.setPiece(fox, itemToBeModifiedX - 1, itemToBeModifiedY);
                         board.setPiece(fox.getOtherHalf(), itemToBeModifiedX, itemToBeModifiedY);
                         flipped = true;
                     } else if (buttons[itemToBeModifiedX][itemToBeModifiedY].getIcon() == Resources.FOX_TAIL_RIGHT) {
-                        Fox fox = new Fox(Direction.LEFT, oldFox.id());
+                        Fox fox = Fox.of(Direction.LEFT, oldFox.id());
                         board.setPiece(fox, itemToBeModifiedX, itemToBeModifiedY);
                         board.setPiece(fox.getOtherHalf(), itemToBeModifiedX + 1, itemToBeModifiedY);
                         flipped = true;
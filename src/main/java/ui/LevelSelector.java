@@ -45,7 +45,7 @@ class LevelSelector extends JFrame implements ActionListener {
 
     private final List<Board> allDefaultLevels;
 
-    private List<Board> allCustomLevels;
+    private final List<Board> allCustomLevels;
 
     private int pageNumber, lastPage;
 
@@ -60,9 +60,10 @@ class LevelSelector extends JFrame implements ActionListener {
         pageNumber = 1;
 
         /*
-         * Storing lists containing the stored levels in the JSON document. Also
-         * determining what the last page is based on the number of levels in the
-         * default level list.
+         * Storing lists containing the stored levels in the JSON document. The list
+         * of custom levels is a view that follows deleted levels. Also determining
+         * what the last page is based on the number of levels in the default level
+         * list.
          */
         allDefaultLevels = Resources.getAllDefaultBoards();
         allCustomLevels = Resources.getAllUserBoards();
@@ -522,7 +523,6 @@ class LevelSelector extends JFrame implements ActionListener {
             else {
                 Resources.removeUserLevel(levelLabelRight.getText());
             }
-            allCustomLevels = Resources.getAllUserBoards();
             determineLastPage(allCustomLevels);
             pageNumber = 1;
             btnLastPage.setEnabled(false);
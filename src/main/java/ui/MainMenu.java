@@ -1,12 +1,12 @@
 package ui;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
 import lombok.extern.log4j.Log4j;
 import model.Board;
-import util.Move;
+import util.MoveList;
 import util.Resources;
+import util.SolutionDatabase;
+import util.Solver;
 
 import javax.swing.*;
 import java.awt.*;
@@ -18,7 +18,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayDeque;
 
 /**
  * This class represents the main menu frame of the game.
@@ -96,6 +95,10 @@ public class MainMenu extends JFrame implements ActionListener {
             }
         }
 
+        Solver.persistHints(path.resolve("HintCache.bin"));
+        // Solving the default levels takes a few seconds on the first run, so it is done in the background
+        new Thread(() -> Solver.useSolutionDatabase(SolutionDatabase.open(path.resolve("SolutionDatabase.bin"),
+                Resources.getAllDefaultBoards())), "Solution Database").start();
         GUIUtilities.applyDefaults();
         SwingUtilities.invokeLater(MainMenu::new);
     }
@@ -129,24 +132,19 @@ public class MainMenu extends JFrame implements ActionListener {
             int returnVal = GUIUtilities.fc.showOpenDialog(this);
             if (returnVal == JFileChooser.APPROVE_OPTION) {
                 Board board;
-                ArrayDeque<Move> undoMoveStack;
-                ArrayDeque<Move> redoMoveStack;
+                MoveList undoMoveStack;
+                MoveList redoMoveStack;
 
                 try {
-                    Gson gson = new Gson();
                     JsonObject jsonObject =
                             Resources.loadJsonObjectFromPath(GUIUtilities.fc.getSelectedFile().getAbsolutePath(), true);
                     if (jsonObject != null) {
                         board = Board.createBoard(jsonObject.get("name").getAsString(),
                                 jsonObject.get("board").getAsString());
-                        undoMoveStack = gson.fromJson(jsonObject.get("undoMoves").getAsString(),
-                                new TypeToken<ArrayDeque<Move>>() {
-                                }.getType());
-                        redoMoveStack = gson.fromJson(jsonObject.get("redoMoves").getAsString(),
-                                new TypeToken<ArrayDeque<Move>>() {
-                                }.getType());
-
-                        if (board != null && undoMoveStack != null && redoMoveStack != null) {
+                        undoMoveStack = MoveList.fromJson(jsonObject.get("undoMoves").getAsString());
+                        redoMoveStack = MoveList.fromJson(jsonObject.get("redoMoves").getAsString());
+
+                        if (board != null) {
                             dispose();
                             SwingUtilities.invokeLater(new GameView(board, board.getName().matches("-?\\d+") ?
                                     Integer.parseInt(board.getName()) : -1, undoMoveStack, redoMoveStack));
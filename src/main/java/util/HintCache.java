@@ -0,0 +1,231 @@
+package util;
+
+import lombok.extern.log4j.Log4j;
+import model.Board;
+import model.BoardState;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a bounded cache of hints, mapping board states to their
+ * distance to a winning state and the next best move to make. When full, the
+ * least recently used hint is evicted. The cache can be saved to and loaded from
+ * a binary file, so that hints survive across sessions.
+ *
+ * @author Samuel Gamelin
+ */
+@Log4j
+public final class HintCache {
+
+    /**
+     * The first four bytes of every hint file.
+     */
+    private static final int MAGIC = 0x52464843;
+
+    /**
+     * The version of the format of hint files, to be incremented whenever the
+     * encoding of board states or moves, or the rules of the game, change.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The number of bits of a cached value holding the packed move.
+     */
+    private static final int MOVE_BITS = 10;
+
+    /**
+     * The maximum number of hints held by this cache.
+     */
+    private final int capacity;
+
+    /**
+     * The cached hints, in access order. Every value holds the distance to a
+     * winning state above the packed next best move.
+     */
+    private final LinkedHashMap<BoardState, Integer> hints;
+
+    /**
+     * Creates an empty hint cache.
+     *
+     * @param capacity The maximum number of hints held by the cache
+     */
+    public HintCache(int capacity) {
+        this.capacity = capacity;
+        this.hints = new LinkedHashMap<BoardState, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BoardState, Integer> eldest) {
+                return size() > HintCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Caches the hint for the specified state.
+     *
+     * @param state    The state the hint is for
+     * @param distance The number of moves separating the state from a winning state
+     * @param move     The next best packed move (see {@link Move#pack(int, int)})
+     */
+    public synchronized void put(BoardState state, int distance, int move) {
+        hints.put(state, distance << MOVE_BITS | move);
+    }
+
+    /**
+     * Caches a hint for every node of the specified winning path, but the last.
+     *
+     * @param path The nodes of a shortest winning path, in order
+     */
+    public void putPath(List<Node> path) {
+        putPath(path, 0);
+    }
+
+    /**
+     * Caches a hint for every node of the specified path, but the last, whose
+     * distance to a winning state is known.
+     *
+     * @param path     The nodes of the path, in order
+     * @param distance The number of moves separating the last node of the path from
+     *                 a winning state
+     */
+    public void putPath(List<Node> path, int distance) {
+        for (int i = 0; i < path.size() - 1; i++) {
+            Move move = path.get(i).getMoveTo(path.get(i + 1));
+            if (move.xStart != -1) {
+                put(path.get(i).getState(), path.size() - 1 - i + distance, move.pack());
+            }
+        }
+    }
+
+    /**
+     * @param state The state whose next best move is to be determined
+     * @return The cached next best packed move for the state, or -1 if there is none
+     */
+    public synchronized int getMove(BoardState state) {
+        Integer hint = hints.get(state);
+        return hint == null ? -1 : hint & (1 << MOVE_BITS) - 1;
+    }
+
+    /**
+     * @param state The state whose distance to a winning state is to be determined
+     * @return The cached number of moves separating the state from a winning state,
+     * or -1 if there is none
+     */
+    public synchronized int getDistance(BoardState state) {
+        Integer hint = hints.get(state);
+        return hint == null ? -1 : hint >>> MOVE_BITS;
+    }
+
+    /**
+     * @return The number of hints held by this cache
+     */
+    public synchronized int size() {
+        return hints.size();
+    }
+
+    /**
+     * Removes every hint from this cache.
+     */
+    public synchronized void clear() {
+        hints.clear();
+    }
+
+    /**
+     * Loads the hints saved in the specified file into this cache. Nothing is
+     * loaded if the file does not exist, and a file saved in another format is
+     * deleted. Hints whose move is not a legal move of their state, or whose
+     * distance is not positive, are skipped.
+     *
+     * @param path The path of the file holding the hints
+     * @return True if the hints were loaded, false otherwise
+     */
+    public synchronized boolean load(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        Map<BoardState, Integer> loaded = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("The file is not a hint file of the current version");
+            }
+            int size = in.readInt();
+            int[] moves = new int[Board.MAX_MOVES];
+            for (int i = 0; i < size; i++) {
+                BoardState state = new BoardState(in.readLong(), in.readLong());
+                int hint = in.readInt();
+                if (isValid(state, hint, moves)) {
+                    loaded.put(state, hint);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not load the hints at " + path + ", discarding them", e);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException deleteException) {
+                log.error("Could not discard the hints at " + path, deleteException);
+            }
+            return false;
+        }
+        hints.putAll(loaded);
+        return true;
+    }
+
+    /**
+     * Determines whether a loaded hint can be trusted, that is whether its distance
+     * is positive and its move is a legal move of its state.
+     *
+     * @param state The state the hint is for
+     * @param hint  The distance of the hint above its packed move
+     * @param moves A buffer for the possible moves of the state
+     * @return True if the hint is valid, false otherwise
+     */
+    private static boolean isValid(BoardState state, int hint, int[] moves) {
+        if (hint >>> MOVE_BITS == 0) {
+            return false;
+        }
+        int move = hint & (1 << MOVE_BITS) - 1;
+        int count = state.getPossibleMoves(moves);
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Saves the hints of this cache into the specified file, from the least to the
+     * most recently used. The file is replaced only once every hint is written.
+     *
+     * @param path The path of the file to save the hints into
+     * @return True if the hints were saved, false otherwise
+     */
+    public synchronized boolean save(Path path) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(hints.size());
+            for (Map.Entry<BoardState, Integer> hint : hints.entrySet()) {
+                out.writeLong(hint.getKey().getLow());
+                out.writeLong(hint.getKey().getHigh());
+                out.writeInt(hint.getValue());
+            }
+        } catch (IOException e) {
+            log.error("Could not save the hints at " + path, e);
+            return false;
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            log.error("Could not save the hints at " + path, e);
+            return false;
+        }
+    }
+}
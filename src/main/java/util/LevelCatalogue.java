@@ -0,0 +1,309 @@
+package util;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import lombok.extern.log4j.Log4j;
+import model.Board;
+import model.BoardState;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents an immutable catalogue of levels, parsed once from a
+ * level file and indexed by name. Levels are held as packed board states, and
+ * every lookup creates a new board, so that boards handed out can be played on
+ * without altering the catalogue.
+ *
+ * @author Samuel Gamelin
+ */
+@Log4j
+final class LevelCatalogue {
+
+    /**
+     * A catalogue without any level.
+     */
+    static final LevelCatalogue EMPTY = new LevelCatalogue(new ArrayList<>(), new ArrayList<>());
+
+    /**
+     * The names of the levels, in file order.
+     */
+    private final String[] names;
+
+    /**
+     * The states of the levels, in file order.
+     */
+    private final BoardState[] states;
+
+    /**
+     * The index of every level, by name. When several levels share a name, the
+     * first one is indexed.
+     */
+    private final Map<String, Integer> indices;
+
+    /**
+     * Creates a catalogue of the specified levels.
+     *
+     * @param names  The names of the levels, in file order
+     * @param states The states of the levels, in file order
+     */
+    private LevelCatalogue(List<String> names, List<BoardState> states) {
+        this.names = names.toArray(new String[0]);
+        this.states = states.toArray(new BoardState[0]);
+        this.indices = new HashMap<>();
+        for (int i = 0; i < this.names.length; i++) {
+            indices.putIfAbsent(this.names[i], i);
+        }
+    }
+
+    /**
+     * Parses a catalogue from a level file. The file is streamed, so that every
+     * level is turned into a packed state as soon as it is read, without building a
+     * tree of the whole file. Levels whose board is malformed are skipped.
+     *
+     * @param reader The reader of the level file
+     * @param key    The key of the array of levels in the level file
+     * @return The parsed catalogue
+     * @throws IOException        If the level file cannot be read
+     * @throws JsonParseException If the level file is not a valid level file
+     */
+    static LevelCatalogue parse(Reader reader, String key) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<BoardState> states = new ArrayList<>();
+        try {
+            JsonReader json = new JsonReader(reader);
+            json.beginObject();
+            while (json.hasNext()) {
+                if (!json.nextName().equals(key)) {
+                    json.skipValue();
+                    continue;
+                }
+                json.beginArray();
+                while (json.hasNext()) {
+                    parseLevel(json, names, states);
+                }
+                json.endArray();
+            }
+            json.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new JsonParseException(e);
+        }
+        return new LevelCatalogue(names, states);
+    }
+
+    /**
+     * Parses the next level of a level file, of the form {"name": ..., "board":
+     * ...}. The level is skipped if either is missing or if its board is malformed.
+     *
+     * @param json   The reader of the level file, positioned before the level
+     * @param names  The names of the levels parsed so far
+     * @param states The states of the levels parsed so far
+     * @throws IOException If the level file cannot be read
+     */
+    private static void parseLevel(JsonReader json, List<String> names, List<BoardState> states)
+            throws IOException {
+        String name = null;
+        String board = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "name":
+                    name = json.nextString();
+                    break;
+                case "board":
+                    board = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        BoardState state = board == null ? null : BoardState.fromString(board);
+        if (name != null && state != null) {
+            names.add(name);
+            states.add(state);
+        }
+    }
+
+    /**
+     * Loads a catalogue from a level file.
+     *
+     * @param url The location of the level file, possibly null
+     * @param key The key of the array of levels in the level file
+     * @return The loaded catalogue, or an empty catalogue if the level file does not
+     * exist or is invalid
+     */
+    static LevelCatalogue load(URL url, String key) {
+        if (url == null) {
+            return EMPTY;
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(url.openStream(), Charset.defaultCharset()))) {
+            return parse(reader, key);
+        } catch (FileNotFoundException e) {
+            return EMPTY;
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not load the levels at " + url, e);
+            return EMPTY;
+        }
+    }
+
+    /**
+     * @return The number of levels in this catalogue
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * @param index The index of a level, in file order
+     * @return The name of the level
+     */
+    String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param index The index of a level, in file order
+     * @return The state of the level
+     */
+    BoardState getState(int index) {
+        return states[index];
+    }
+
+    /**
+     * @param name The name of a level
+     * @return True if this catalogue holds a level with that name, false otherwise
+     */
+    boolean contains(String name) {
+        return indices.containsKey(name);
+    }
+
+    /**
+     * Creates the board of the level with the specified name.
+     *
+     * @param name The name of the level
+     * @return A new board for that level, or null if no level has that name
+     */
+    Board getBoard(String name) {
+        Integer index = indices.get(name);
+        return index == null ? null : states[index].toBoard(names[index]);
+    }
+
+    /**
+     * Creates the board of the level with the specified number, that is the level
+     * named after that number.
+     *
+     * @param level The number of the level
+     * @return A new board for that level, or null if no level has that number
+     */
+    Board getBoard(int level) {
+        return getBoard(String.valueOf(level));
+    }
+
+    /**
+     * Returns a read-only list of the boards of all levels of this catalogue, in
+     * file order. Boards are only created as they are accessed, a new one on every
+     * access, so that a page of levels can be shown without creating the boards of
+     * the others.
+     *
+     * @return A list of the boards of all levels of this catalogue
+     */
+    List<Board> getBoards() {
+        return new AbstractList<Board>() {
+            @Override
+            public Board get(int index) {
+                return states[index].toBoard(names[index]);
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+        };
+    }
+
+    /**
+     * This class caches the catalogue of a level file, parsing the file again only
+     * once its modification time changes. Level files bundled in an archive never
+     * change, so they are only parsed once.
+     */
+    static final class Cache {
+
+        /**
+         * The location of the level file, possibly null.
+         */
+        private final URL url;
+
+        /**
+         * The key of the array of levels in the level file.
+         */
+        private final String key;
+
+        /**
+         * The cached catalogue, or null if the level file has to be parsed.
+         */
+        private LevelCatalogue catalogue;
+
+        /**
+         * The modification time of the level file when it was last parsed.
+         */
+        private long lastModified;
+
+        /**
+         * Creates a cache of the catalogue of the specified level file. The file is
+         * only parsed when the catalogue is first requested.
+         *
+         * @param url The location of the level file, possibly null
+         * @param key The key of the array of levels in the level file
+         */
+        Cache(URL url, String key) {
+            this.url = url;
+            this.key = key;
+        }
+
+        /**
+         * Returns the catalogue of the level file, parsing the file if it was
+         * modified since it was last parsed.
+         *
+         * @return The catalogue of the level file
+         */
+        synchronized LevelCatalogue get() {
+            long modified = getLastModified();
+            if (catalogue == null || modified != lastModified) {
+                catalogue = load(url, key);
+                lastModified = modified;
+            }
+            return catalogue;
+        }
+
+        /**
+         * Forces the level file to be parsed the next time the catalogue is
+         * requested, whatever its modification time.
+         */
+        synchronized void invalidate() {
+            catalogue = null;
+        }
+
+        /**
+         * @return The modification time of the level file, or zero if the file does
+         * not exist or is not a plain file
+         */
+        private long getLastModified() {
+            if (url == null || !"file".equals(url.getProtocol())) {
+                return 0;
+            }
+            try {
+                return new File(url.toURI()).lastModified();
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return 0;
+            }
+        }
+    }
+}
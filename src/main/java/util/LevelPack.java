@@ -0,0 +1,321 @@
+package util;
+
+import lombok.extern.log4j.Log4j;
+import model.Board;
+import model.BoardState;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents a pack of levels stored in a compact binary file, which
+ * is memory-mapped so that opening a pack of any size is immediate and levels are
+ * only decoded when looked up.
+ * <p>
+ * A level pack file is made of a header, followed by the packed state of every
+ * level, the offset of the name of every level, an open-addressing hash table
+ * indexing levels by name and, finally, the names themselves. Every name is
+ * stored as its length in bytes, as an unsigned short, followed by its UTF-8
+ * bytes.
+ *
+ * @author Samuel Gamelin
+ */
+@Log4j
+public final class LevelPack {
+
+    /**
+     * The first four bytes of every level pack file.
+     */
+    private static final int MAGIC = 0x52464C50;
+
+    /**
+     * The version of the format of level pack files.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size, in bytes, of the header of a level pack file: the magic number, the
+     * version, the number of levels and the number of slots of the name index.
+     */
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    /**
+     * The size, in bytes, of the packed state of a level: its two longs.
+     */
+    private static final int STATE_SIZE = 2 * Long.BYTES;
+
+    /**
+     * The file, starting at its header.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of levels in this pack.
+     */
+    private final int size;
+
+    /**
+     * The mask applied to a hash to obtain a slot index of the name index.
+     */
+    private final int mask;
+
+    /**
+     * Creates a level pack backed by the specified file.
+     *
+     * @param buffer    The file, starting at its header
+     * @param size      The number of levels
+     * @param slotCount The number of slots of the name index, a power of two
+     */
+    private LevelPack(ByteBuffer buffer, int size, int slotCount) {
+        this.buffer = buffer;
+        this.size = size;
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Opens the level pack stored in the specified file.
+     *
+     * @param path The path of the level pack file
+     * @return The level pack, or null if the file could not be read or is not a
+     * level pack file
+     */
+    public static LevelPack open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("The file is too short to be a level pack");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int size = buffer.getInt(2 * Integer.BYTES);
+            int slotCount = buffer.getInt(3 * Integer.BYTES);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION || size < 0 ||
+                    Integer.bitCount(slotCount) != 1 || channel.size() < HEADER_SIZE +
+                    (long) size * (STATE_SIZE + Integer.BYTES) + (long) slotCount * Integer.BYTES) {
+                throw new IOException("The file is not a valid level pack");
+            }
+            return new LevelPack(buffer, size, slotCount);
+        } catch (IOException e) {
+            log.error("Could not open the level pack at " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Converts the levels of a JSON level file into a level pack.
+     *
+     * @param url  The location of the JSON level file, possibly null
+     * @param key  The key of the array of levels in the JSON level file
+     * @param path The path of the level pack file to write
+     * @return True if the level pack was written, false if the JSON level file does
+     * not exist or is invalid, or if the level pack could not be written
+     */
+    static boolean convert(URL url, String key, Path path) {
+        if (url == null) {
+            log.error("Could not find the levels to convert into a level pack");
+            return false;
+        }
+        LevelCatalogue catalogue;
+        try (Reader reader = new BufferedReader(new InputStreamReader(url.openStream(), Charset.defaultCharset()))) {
+            catalogue = LevelCatalogue.parse(reader, key);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not read the levels at " + url, e);
+            return false;
+        }
+        List<String> names = new ArrayList<>(catalogue.size());
+        List<BoardState> states = new ArrayList<>(catalogue.size());
+        for (int i = 0; i < catalogue.size(); i++) {
+            names.add(catalogue.getName(i));
+            states.add(catalogue.getState(i));
+        }
+        try {
+            write(path, names, states);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Could not convert the levels at " + url + " into a level pack", e);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the specified levels into a level pack file. The file is replaced only
+     * once it is complete.
+     *
+     * @param path   The path of the level pack file
+     * @param names  The names of the levels
+     * @param states The states of the levels
+     * @throws IOException              If the file cannot be written
+     * @throws IllegalArgumentException If a name is longer than 65535 bytes
+     */
+    static void write(Path path, List<String> names, List<BoardState> states) throws IOException {
+        int size = names.size();
+        int slotCount = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        byte[][] encodedNames = new byte[size][];
+        long length = namesOffset(size, slotCount);
+        for (int i = 0; i < size; i++) {
+            encodedNames[i] = names.get(i).getBytes(StandardCharsets.UTF_8);
+            if (encodedNames[i].length > 0xFFFF) {
+                throw new IllegalArgumentException("The name of level " + i + " is too long");
+            }
+            length += Short.BYTES + encodedNames[i].length;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many levels to fit in a level pack");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(slotCount);
+        int offset = namesOffset(size, slotCount);
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(HEADER_SIZE + i * STATE_SIZE, states.get(i).getLow());
+            buffer.putLong(HEADER_SIZE + i * STATE_SIZE + Long.BYTES, states.get(i).getHigh());
+            buffer.putInt(nameOffsetsOffset(size) + i * Integer.BYTES, offset);
+            buffer.putShort(offset, (short) encodedNames[i].length);
+            buffer.position(offset + Short.BYTES);
+            buffer.put(encodedNames[i]);
+            offset += Short.BYTES + encodedNames[i].length;
+
+            // When several levels share a name, only the first one is indexed
+            int slot = names.get(i).hashCode() & slotCount - 1;
+            boolean duplicate = false;
+            for (int level; (level = buffer.getInt(slotsOffset(size) + slot * Integer.BYTES) - 1) != -1; ) {
+                if (names.get(level).equals(names.get(i))) {
+                    duplicate = true;
+                    break;
+                }
+                slot = slot + 1 & slotCount - 1;
+            }
+            if (!duplicate) {
+                buffer.putInt(slotsOffset(size) + slot * Integer.BYTES, i + 1);
+            }
+        }
+        buffer.position(0);
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @param size The number of levels of a pack
+     * @return The byte offset of the name offsets of the pack
+     */
+    private static int nameOffsetsOffset(int size) {
+        return HEADER_SIZE + size * STATE_SIZE;
+    }
+
+    /**
+     * @param size The number of levels of a pack
+     * @return The byte offset of the slots of the name index of the pack, each
+     * holding the index of a level plus one, or zero if empty
+     */
+    private static int slotsOffset(int size) {
+        return nameOffsetsOffset(size) + size * Integer.BYTES;
+    }
+
+    /**
+     * @param size      The number of levels of a pack
+     * @param slotCount The number of slots of the name index of the pack
+     * @return The byte offset of the names of the pack
+     */
+    private static int namesOffset(int size, int slotCount) {
+        return slotsOffset(size) + slotCount * Integer.BYTES;
+    }
+
+    /**
+     * @return The number of levels in this pack
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index The index of a level
+     * @return The name of the level
+     * @throws IndexOutOfBoundsException If there is no level with that index
+     */
+    public String getName(int index) {
+        int offset = buffer.getInt(nameOffsetsOffset(size) + checkIndex(index) * Integer.BYTES);
+        byte[] name = new byte[buffer.getShort(offset) & 0xFFFF];
+        ByteBuffer record = buffer.duplicate();
+        record.position(offset + Short.BYTES);
+        record.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param index The index of a level
+     * @return The state of the level
+     * @throws IndexOutOfBoundsException If there is no level with that index
+     */
+    public BoardState getState(int index) {
+        int offset = HEADER_SIZE + checkIndex(index) * STATE_SIZE;
+        return new BoardState(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES));
+    }
+
+    /**
+     * Creates the board of the level with the specified index.
+     *
+     * @param index The index of a level
+     * @return A new board for the level
+     * @throws IndexOutOfBoundsException If there is no level with that index
+     */
+    public Board getBoard(int index) {
+        return getState(index).toBoard(getName(index));
+    }
+
+    /**
+     * Finds the level with the specified name, probing the name index of this pack.
+     *
+     * @param name The name of a level
+     * @return The index of the first level with that name, or -1 if no level has
+     * that name
+     */
+    public int indexOf(String name) {
+        for (int slot = name.hashCode() & mask; ; slot = slot + 1 & mask) {
+            int index = buffer.getInt(slotsOffset(size) + slot * Integer.BYTES) - 1;
+            if (index == -1 || getName(index).equals(name)) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Creates the board of the level with the specified name.
+     *
+     * @param name The name of a level
+     * @return A new board for the level, or null if no level has that name
+     */
+    public Board getBoard(String name) {
+        int index = indexOf(name);
+        return index == -1 ? null : getBoard(index);
+    }
+
+    /**
+     * @param index The index of a level
+     * @return The index
+     * @throws IndexOutOfBoundsException If there is no level with that index
+     */
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("There is no level with index " + index);
+        }
+        return index;
+    }
+}
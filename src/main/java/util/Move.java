@@ -1,6 +1,7 @@
 package util;
 
 import lombok.AllArgsConstructor;
+import model.BoardState;
 
 /**
  * This class represents the move coordinates for the game. Since move will be
@@ -57,6 +58,78 @@ public final class Move {
         return yEnd - yStart;
     }
 
+    /**
+     * Packs a move into a single int, holding the index of the start square in
+     * bits 5-9 and the index of the end square in bits 0-4. Square indices follow
+     * the conventions of {@link BoardState}.
+     *
+     * @param start The index of the start square
+     * @param end   The index of the end square
+     * @return The packed move
+     */
+    public static int pack(int start, int end) {
+        return start << 5 | end;
+    }
+
+    /**
+     * Packs the specified move coordinates into a single int.
+     *
+     * @param xStart The x-coordinate of the start position
+     * @param yStart The y-coordinate of the start position
+     * @param xEnd   The x-coordinate of the end position
+     * @param yEnd   The y-coordinate of the end position
+     * @return The packed move
+     * @see #pack(int, int)
+     */
+    public static int pack(int xStart, int yStart, int xEnd, int yEnd) {
+        return pack(BoardState.square(xStart, yStart), BoardState.square(xEnd, yEnd));
+    }
+
+    /**
+     * @param move A packed move
+     * @return The index of the start square of the packed move
+     */
+    public static int start(int move) {
+        return move >>> 5;
+    }
+
+    /**
+     * @param move A packed move
+     * @return The index of the end square of the packed move
+     */
+    public static int end(int move) {
+        return move & 31;
+    }
+
+    /**
+     * @param move A packed move
+     * @return The packed move going from the end square back to the start square
+     */
+    public static int reverse(int move) {
+        return pack(end(move), start(move));
+    }
+
+    /**
+     * Creates a move object from a packed move.
+     *
+     * @param move The packed move
+     * @return The corresponding move object
+     */
+    public static Move unpack(int move) {
+        return new Move(BoardState.x(start(move)), BoardState.y(start(move)), BoardState.x(end(move)),
+                BoardState.y(end(move)));
+    }
+
+    /**
+     * Packs this move into a single int. Its coordinates must be on the board.
+     *
+     * @return The packed move
+     * @see #pack(int, int)
+     */
+    public int pack() {
+        return pack(xStart, yStart, xEnd, yEnd);
+    }
+
     public enum MoveDirection {
         HORIZONTAL, VERTICAL, INVALID
     }
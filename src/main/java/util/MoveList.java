@@ -0,0 +1,142 @@
+package util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a growable list of packed moves (see
+ * {@link Move#pack(int, int)}). It is backed by a primitive array, and can be
+ * used as a stack whose top is the last move of the list.
+ *
+ * @author Samuel Gamelin
+ */
+public final class MoveList {
+
+    /**
+     * The packed moves of this list. Only the first size moves are meaningful.
+     */
+    private int[] moves;
+
+    /**
+     * The number of moves in this list.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty move list.
+     */
+    public MoveList() {
+        moves = new int[16];
+    }
+
+    /**
+     * Constructs a move list holding the specified packed moves, in order.
+     *
+     * @param moves The packed moves of the list
+     */
+    public MoveList(int... moves) {
+        this.moves = Arrays.copyOf(moves, Math.max(moves.length, 16));
+        this.size = moves.length;
+    }
+
+    /**
+     * Creates a move list from its JSON representation. Both the packed
+     * representation produced by {@link #toJson()} and the representation of a
+     * stack of move objects used by older saved games (most recent move first) are
+     * accepted.
+     *
+     * @param json The JSON representation of the list
+     * @return The corresponding move list
+     */
+    public static MoveList fromJson(String json) {
+        JsonArray array = JsonParser.parseString(json).getAsJsonArray();
+        MoveList moveList = new MoveList();
+        for (int i = 0; i < array.size(); i++) {
+            JsonElement element = array.get(i);
+            if (element.isJsonObject()) {
+                JsonObject move = array.get(array.size() - 1 - i).getAsJsonObject();
+                moveList.push(Move.pack(move.get("xStart").getAsInt(), move.get("yStart").getAsInt(),
+                        move.get("xEnd").getAsInt(), move.get("yEnd").getAsInt()));
+            } else {
+                moveList.push(element.getAsInt());
+            }
+        }
+        return moveList;
+    }
+
+    /**
+     * Adds a packed move to the end (top) of this list.
+     *
+     * @param move The packed move to add
+     */
+    public void push(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Removes and returns the last (top) move of this list.
+     *
+     * @return The removed packed move
+     * @throws IllegalStateException If this list is empty
+     */
+    public int pop() {
+        if (size == 0) {
+            throw new IllegalStateException("The move list is empty");
+        }
+        return moves[--size];
+    }
+
+    /**
+     * @param index The index of a move of this list
+     * @return The packed move at the specified index
+     * @throws IndexOutOfBoundsException If the index is not within this list
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return moves[index];
+    }
+
+    /**
+     * @return The number of moves in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if this list holds no moves, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every move from this list.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return A new array holding the packed moves of this list, in order
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * @return The JSON representation of this list, an array of packed moves
+     */
+    public String toJson() {
+        return Arrays.toString(toArray()).replace(" ", "");
+    }
+}
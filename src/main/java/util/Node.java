@@ -4,6 +4,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import model.Board;
+import model.BoardState;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -20,9 +21,9 @@ import java.util.Set;
 public class Node {
 
     /**
-     * The board associated with this node.
+     * The state of the board associated with this node.
      */
-    private final Board board;
+    private final BoardState state;
 
     /**
      * Create a node given the provided board.
@@ -30,7 +31,16 @@ public class Node {
      * @param board The board to associate with this node
      */
     public Node(Board board) {
-        this.board = new Board(board);
+        this(BoardState.of(board));
+    }
+
+    /**
+     * Create a node given the provided board state.
+     *
+     * @param state The board state to associate with this node
+     */
+    public Node(BoardState state) {
+        this.state = state;
     }
 
     /**
@@ -39,11 +49,11 @@ public class Node {
      * @return A set containing all children of this node
      */
     public Set<Node> getChildren() {
+        int[] moves = new int[Board.MAX_MOVES];
+        int count = state.getPossibleMoves(moves);
         Set<Node> children = new HashSet<>();
-        for (Move move : board.getPossibleMoves()) {
-            Board newBoard = new Board(board);
-            newBoard.move(move);
-            children.add(new Node(newBoard));
+        for (int i = 0; i < count; i++) {
+            children.add(new Node(state.move(moves[i])));
         }
         return children;
     }
@@ -56,10 +66,11 @@ public class Node {
      * no such move, a move object with an invalid direction is returned.
      */
     public Move getMoveTo(Node node) {
-        for (Move move : board.getPossibleMoves()) {
-            Board newBoard = new Board(board);
-            if (newBoard.move(move) && node.equals(new Node(newBoard))) {
-                return move;
+        int[] moves = new int[Board.MAX_MOVES];
+        int count = state.getPossibleMoves(moves);
+        for (int i = 0; i < count; i++) {
+            if (state.move(moves[i]).equals(node.state)) {
+                return Move.unpack(moves[i]);
             }
         }
         return new Move(-1, -1, -1, -1);
@@ -69,6 +80,6 @@ public class Node {
      * @return True if this node's board is in a winning state. False otherwise.
      */
     public boolean isWinningNode() {
-        return board.isInWinningState();
+        return state.isInWinningState();
     }
 }
@@ -11,9 +11,11 @@ import javax.sound.sampled.*;
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Objects;
 
@@ -140,6 +142,12 @@ public final class Resources {
      */
     private static final String LEVEL_DATA_PATH = "levels/LevelData.json";
 
+    /**
+     * The cached catalogue of the default levels.
+     */
+    private static final LevelCatalogue.Cache DEFAULT_LEVEL_CATALOGUE =
+            new LevelCatalogue.Cache(getFileURL(LEVEL_DATA_PATH), DEFAULT_LEVELS);
+
     /**
      * The total number of levels available.
      */
@@ -152,6 +160,12 @@ public final class Resources {
             System.getProperty("user.home") + File.separator + ".Rabbits and Foxes!" + File.separator +
                     "CustomLevelData.json";
 
+    /**
+     * The journaled store of the user levels.
+     */
+    private static final UserLevelStore USER_LEVEL_STORE =
+            new UserLevelStore(Paths.get(CUSTOM_LEVEL_DATA_PATH), USER_LEVELS);
+
     /**
      * Returns a scaled version of the icon based on the primary display's size. A
      * scale value of 1 represents 1/5 of the width/height of the viewing area.
@@ -178,6 +192,21 @@ public final class Resources {
         return Thread.currentThread().getContextClassLoader().getResource(path);
     }
 
+    /**
+     * Returns the location of the specified file.
+     *
+     * @param file The file
+     * @return The location of the file, or null if it cannot be expressed as a URL
+     */
+    private static URL getFileURL(File file) {
+        try {
+            return file.toURI().toURL();
+        } catch (MalformedURLException e) {
+            log.error("Could not locate the file at " + file, e);
+            return null;
+        }
+    }
+
     /**
      * Loads and returns an audio clip used for sound playback.
      *
@@ -209,12 +238,12 @@ public final class Resources {
      * LevelData.json file is found.
      */
     private static int getNumberOfLevels() {
-        try {
-            return Objects.requireNonNull(loadJsonObjectFromPath(LEVEL_DATA_PATH, false)).get(DEFAULT_LEVELS).getAsJsonArray().size();
-        } catch (Exception e) {
-            log.error("Unable to obtain total number of levels from LevelData.json file", e);
+        int numberOfLevels = DEFAULT_LEVEL_CATALOGUE.get().size();
+        if (numberOfLevels == 0) {
+            log.error("Unable to obtain total number of levels from LevelData.json file");
             return -1;
         }
+        return numberOfLevels;
     }
 
     /**
@@ -265,130 +294,102 @@ public final class Resources {
 
     /**
      * Load and return a new default Board based on the supplied level. The levels
-     * are loaded from a JSON file.
+     * are parsed from a JSON file once, then served from a cached catalogue.
      *
      * @param level The level to load.
      * @return The Board associated with the passed-in level. Null if the level does
      * not exist or the LevelData.json file is not found.
      */
     public static Board getDefaultBoardByLevel(int level) {
-        try {
-            for (JsonElement element :
-                    Objects.requireNonNull(loadJsonObjectFromPath(LEVEL_DATA_PATH, false)).get(DEFAULT_LEVELS).getAsJsonArray()) {
-                if (element.getAsJsonObject().get("name").getAsInt() == level) {
-                    return Board.createBoard(String.valueOf(level),
-                            element.getAsJsonObject().get("board").getAsString());
-                }
-            }
-        } catch (Exception e) {
+        Board board = DEFAULT_LEVEL_CATALOGUE.get().getBoard(level);
+        if (board == null) {
             log.error("Unable to obtain level from LevelData.json file for level " + level);
         }
-        return null;
+        return board;
     }
 
     /**
      * Returns a list of all default boards as specified by the LevelData.json file.
+     * Boards are only created as they are accessed, a new one on every access.
      *
-     * @return A list of all default boards, or an empty list if any problems are
-     * encountered
+     * @return A read-only list of all default boards, or an empty list if any
+     * problems are encountered
      */
     public static List<Board> getAllDefaultBoards() {
-        List<Board> boardList = new ArrayList<>();
+        return DEFAULT_LEVEL_CATALOGUE.get().getBoards();
+    }
 
-        try {
-            Objects.requireNonNull(loadJsonObjectFromPath(LEVEL_DATA_PATH, false)).get(DEFAULT_LEVELS).getAsJsonArray().forEach(element -> boardList.add(Board.createBoard(element.getAsJsonObject().get("name").getAsString(), element.getAsJsonObject().get("board").getAsString())));
-        } catch (Exception e) {
-            log.error("Unable to obtain all default levels from the LevelData.json file");
-            return new ArrayList<>();
-        }
+    /**
+     * Returns a view of all user boards as specified by the customLevelData.json
+     * file and its journal. The view reflects levels added or removed later on. The
+     * files are only read again once they have been modified, and boards are only
+     * created as they are accessed, a new one on every access.
+     *
+     * @return A read-only view of all user boards
+     */
+    public static List<Board> getAllUserBoards() {
+        return USER_LEVEL_STORE.getBoards();
+    }
 
-        return boardList;
+    /**
+     * Load and return a new user Board based on the supplied level name.
+     *
+     * @param name The name of the level to load
+     * @return The Board associated with the passed-in name. Null if no user level
+     * has that name.
+     */
+    public static Board getUserBoardByName(String name) {
+        return USER_LEVEL_STORE.getBoard(name);
     }
 
     /**
-     * Returns a list of all user boards as specified by the LevelData.json file.
+     * Converts the default levels of the LevelData.json file into a level pack.
      *
-     * @return A list of all user boards
+     * @param path The path of the level pack file to write
+     * @return True if the level pack was written, false otherwise
      */
-    public static List<Board> getAllUserBoards() {
-        List<Board> boardList = new ArrayList<>();
+    public static boolean convertDefaultLevels(Path path) {
+        return LevelPack.convert(getFileURL(LEVEL_DATA_PATH), DEFAULT_LEVELS, path);
+    }
 
+    /**
+     * Converts the user levels of the customLevelData.json file into a level pack.
+     * The journal of the user levels is compacted into the file first.
+     *
+     * @param path The path of the level pack file to write
+     * @return True if the level pack was written, false otherwise
+     */
+    public static boolean convertUserLevels(Path path) {
         try {
-            Objects.requireNonNull(loadJsonObjectFromPath(CUSTOM_LEVEL_DATA_PATH, true)).get(USER_LEVELS).getAsJsonArray().forEach(element -> boardList.add(Board.createBoard(element.getAsJsonObject().get("name").getAsString(), element.getAsJsonObject().get("board").getAsString())));
-        } catch (Exception e) {
-            log.error("Unable to obtain all user levels from the customLevelData.json file");
-            return new ArrayList<>();
+            USER_LEVEL_STORE.compact();
+        } catch (IOException e) {
+            log.error("Unable to compact the user-defined levels before converting them", e);
+            return false;
         }
-
-        return boardList;
+        return LevelPack.convert(getFileURL(new File(CUSTOM_LEVEL_DATA_PATH)), USER_LEVELS, path);
     }
 
     /**
-     * Adds a user-defined level to the LevelData.json file based on the provided
-     * Board, if the level with that name does not already exist.
+     * Adds a user-defined level to the customLevelData.json file based on the
+     * provided Board, if the level with that name does not already exist. Only a
+     * record of the level is appended to the journal of the file.
      *
-     * @param board The Board to add to the LevelData.json file
+     * @param board The Board to add to the customLevelData.json file
      * @return True if the user-defined level was saved, false otherwise
      */
     public static boolean addUserLevel(Board board) {
-        JsonObject originalJsonObject = loadJsonObjectFromPath(CUSTOM_LEVEL_DATA_PATH, true);
-
-        if (originalJsonObject != null) {
-            for (JsonElement object : originalJsonObject.get(USER_LEVELS).getAsJsonArray()) {
-                if (object.getAsJsonObject().get("name").getAsString().equals(board.getName())) {
-                    return false;
-                }
-            }
-        }
-        try {
-            FileOutputStream out = new FileOutputStream(CUSTOM_LEVEL_DATA_PATH);
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-            JsonObject jsonObject = new JsonObject();
-            jsonObject.addProperty("name", board.getName());
-            jsonObject.addProperty("board", board.toString());
-
-            if (originalJsonObject != null) {
-                originalJsonObject.get(USER_LEVELS).getAsJsonArray().add(jsonObject);
-            }
-
-            out.write(gson.toJson(originalJsonObject).getBytes());
-            out.close();
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            log.error("Unable to save user-defined level to the customLevelData.json file", e);
-            return false;
-        }
+        return USER_LEVEL_STORE.add(board);
     }
 
     /**
-     * Removes a user-defined level from the LevelData.json file based on the
-     * provided level name, if the level with that name exists.
+     * Removes a user-defined level from the customLevelData.json file based on the
+     * provided level name, if the level with that name exists. Only a record of the
+     * removal is appended to the journal of the file.
      *
-     * @param name The name of the level to remove from the LevelData.json file
+     * @param name The name of the level to remove from the customLevelData.json
+     *             file
      */
     public static void removeUserLevel(String name) {
-        JsonObject originalJsonObject = loadJsonObjectFromPath(CUSTOM_LEVEL_DATA_PATH, true);
-
-        if (originalJsonObject != null) {
-            for (JsonElement object : originalJsonObject.get(USER_LEVELS).getAsJsonArray()) {
-                if (object.getAsJsonObject().get("name").getAsString().equals(name)) {
-                    try {
-                        FileOutputStream out = new FileOutputStream(CUSTOM_LEVEL_DATA_PATH);
-                        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-                        originalJsonObject.get(USER_LEVELS).getAsJsonArray().remove(object);
-
-                        out.write(gson.toJson(originalJsonObject).getBytes());
-                        out.close();
-                        return;
-                    } catch (Exception e) {
-                        log.error("Unable to save user-defined level to the customLevelData.json file", e);
-                        return;
-                    }
-                }
-            }
-        }
+        USER_LEVEL_STORE.remove(name);
     }
 }
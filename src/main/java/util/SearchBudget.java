@@ -0,0 +1,141 @@
+package util;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * This class represents the budget of a search: a wall-clock deadline, a maximum
+ * number of visited states and a cancellation signal. A search reports the number
+ * of states it visited so far to its budget, which tells it whether to give up.
+ * Every so many states, the progress of the search is reported to an optional
+ * callback.
+ *
+ * @author Samuel Gamelin
+ */
+final class SearchBudget {
+
+    /**
+     * The number of visited states between two checks of the deadline and of the
+     * cancellation signal, and between two progress reports.
+     */
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    /**
+     * The value of {@link System#nanoTime()} past which the search gives up, or
+     * null if the search has no deadline.
+     */
+    private final Long deadline;
+
+    /**
+     * The maximum number of states the search may visit.
+     */
+    private final int maxStates;
+
+    /**
+     * The callback notified of the number of states visited so far, or null.
+     */
+    private final IntConsumer progress;
+
+    /**
+     * Tells whether the search was cancelled.
+     */
+    private final BooleanSupplier cancelled;
+
+    /**
+     * The number of visited states past which the deadline and the cancellation
+     * signal are checked next. Races between the threads of a parallel search only
+     * cause extra checks.
+     */
+    private int nextCheck;
+
+    /**
+     * True once the budget has run out.
+     */
+    private volatile boolean exhausted;
+
+    /**
+     * Creates a search budget.
+     *
+     * @param timeout   The maximum duration of the search, or null if it has none
+     * @param maxStates The maximum number of states the search may visit
+     * @param progress  The callback notified of the number of states visited so
+     *                  far, or null
+     * @param cancelled Tells whether the search was cancelled
+     */
+    SearchBudget(Duration timeout, int maxStates, IntConsumer progress, BooleanSupplier cancelled) {
+        this.deadline = timeout == null ? null : System.nanoTime() + timeout.toNanos();
+        this.maxStates = maxStates;
+        this.progress = progress;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Creates a search budget with the same deadline, maximum number of states,
+     * progress callback and cancellation signal as the specified budget.
+     *
+     * @param budget The budget to copy
+     */
+    private SearchBudget(SearchBudget budget) {
+        this.deadline = budget.deadline;
+        this.maxStates = budget.maxStates;
+        this.progress = budget.progress;
+        this.cancelled = budget.cancelled;
+    }
+
+    /**
+     * @return A budget that never runs out
+     */
+    static SearchBudget unlimited() {
+        return new SearchBudget(null, Integer.MAX_VALUE, null, () -> false);
+    }
+
+    /**
+     * Creates the budget of another search, which shares the deadline, the
+     * cancellation signal and the progress callback of this budget, but counts its
+     * own visited states.
+     *
+     * @return A new budget for another search
+     */
+    SearchBudget fork() {
+        return new SearchBudget(this);
+    }
+
+    /**
+     * Reports the number of states visited so far by the search, and determines
+     * whether the search should give up.
+     *
+     * @param states The number of states visited so far
+     * @return True if the budget has run out, false otherwise
+     */
+    boolean isExhausted(int states) {
+        if (exhausted) {
+            return true;
+        }
+        if (states > maxStates) {
+            exhausted = true;
+        } else if (states >= nextCheck) {
+            nextCheck = states + CHECK_INTERVAL;
+            if (progress != null) {
+                progress.accept(states);
+            }
+            exhausted = isExpired();
+        }
+        return exhausted;
+    }
+
+    /**
+     * @return True if the search was cancelled or its deadline passed, false
+     * otherwise
+     */
+    boolean isExpired() {
+        return cancelled.getAsBoolean() || deadline != null && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * @return True if the budget has run out, false otherwise
+     */
+    boolean isExhausted() {
+        return exhausted;
+    }
+}
@@ -0,0 +1,133 @@
+package util;
+
+import model.BoardState;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the tree built by a breadth-first search, stored in
+ * primitive arrays. Every node is identified by its index and holds a state,
+ * the index of its parent and the packed move leading from its parent to it.
+ * Nodes are added in the order they are discovered, so that the tree doubles as
+ * the queue of the search.
+ *
+ * @author Samuel Gamelin
+ */
+final class SearchTree {
+
+    /**
+     * The parent index of the root.
+     */
+    static final int NO_PARENT = -1;
+
+    /**
+     * The low long of the state of every node.
+     */
+    private long[] lows;
+
+    /**
+     * The high long of the state of every node.
+     */
+    private long[] highs;
+
+    /**
+     * The index of the parent of every node.
+     */
+    private int[] parents;
+
+    /**
+     * The packed move leading from the parent of every node to it.
+     */
+    private int[] moves;
+
+    /**
+     * The number of nodes in this tree.
+     */
+    private int size;
+
+    /**
+     * Creates a tree made of the specified root.
+     *
+     * @param root The state of the root
+     */
+    SearchTree(BoardState root) {
+        lows = new long[1 << 10];
+        highs = new long[1 << 10];
+        parents = new int[1 << 10];
+        moves = new int[1 << 10];
+        add(root, NO_PARENT, 0);
+    }
+
+    /**
+     * Adds a node to this tree.
+     *
+     * @param state  The state of the node
+     * @param parent The index of the parent of the node
+     * @param move   The packed move leading from the parent to the node
+     * @return The index of the node
+     */
+    int add(BoardState state, int parent, int move) {
+        if (size == lows.length) {
+            int capacity = size * 2;
+            lows = Arrays.copyOf(lows, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            moves = Arrays.copyOf(moves, capacity);
+        }
+        lows[size] = state.getLow();
+        highs[size] = state.getHigh();
+        parents[size] = parent;
+        moves[size] = move;
+        return size++;
+    }
+
+    /**
+     * @param node The index of a node
+     * @return The state of the node
+     */
+    BoardState getState(int node) {
+        return new BoardState(lows[node], highs[node]);
+    }
+
+    /**
+     * @param node The index of a node
+     * @return The index of the parent of the node, or {@link #NO_PARENT} for the
+     * root
+     */
+    int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @param node The index of a node other than the root
+     * @return The packed move leading from the parent of the node to it
+     */
+    int getMove(int node) {
+        return moves[node];
+    }
+
+    /**
+     * @return The number of nodes in this tree
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Determines the path from the root to the specified node.
+     *
+     * @param node The index of the last node of the path
+     * @return The indices of the nodes of the path, starting with the root
+     */
+    int[] getPath(int node) {
+        int depth = 0;
+        for (int ancestor = node; ancestor != NO_PARENT; ancestor = parents[ancestor]) {
+            depth++;
+        }
+        int[] path = new int[depth];
+        for (int ancestor = node; ancestor != NO_PARENT; ancestor = parents[ancestor]) {
+            path[--depth] = ancestor;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,245 @@
+package util;
+
+import lombok.extern.log4j.Log4j;
+import model.Board;
+import model.BoardState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * This class represents a precomputed database of the solutions of a fixed set of
+ * levels. For every state reachable from one of the levels and from which a
+ * winning state can be reached, the database holds the distance to a winning
+ * state and the next best move to make, as determined by the {@link Tablebase}
+ * of the level.
+ * <p>
+ * The database is stored in a binary file made of a header followed by an
+ * open-addressing hash table, which is memory-mapped so that every lookup is a
+ * constant time probe of the file.
+ *
+ * @author Samuel Gamelin
+ */
+@Log4j
+public final class SolutionDatabase {
+
+    /**
+     * The first four bytes of every solution database file.
+     */
+    private static final int MAGIC = 0x52414653;
+
+    /**
+     * The version of the format of solution database files.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size, in bytes, of the header of a solution database file: the magic
+     * number, the version, the checksum of the levels and the number of slots.
+     */
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    /**
+     * The size, in bytes, of a slot of the hash table: the two longs of a state,
+     * followed by the packed next best move and the distance to a winning state as
+     * shorts.
+     */
+    private static final int SLOT_SIZE = 2 * Long.BYTES + 2 * Short.BYTES;
+
+    /**
+     * The slots of the hash table, starting at index zero. An empty slot holds the
+     * state of an empty board, which can never be solved.
+     */
+    private final ByteBuffer slots;
+
+    /**
+     * The mask applied to a hash to obtain a slot index.
+     */
+    private final int mask;
+
+    /**
+     * Creates a solution database backed by the specified slots.
+     *
+     * @param slots     The slots of the hash table
+     * @param slotCount The number of slots, a power of two
+     */
+    private SolutionDatabase(ByteBuffer slots, int slotCount) {
+        this.slots = slots;
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Opens the solution database of the specified levels stored in the specified
+     * file. Should the file not exist, or hold the database of other levels, the
+     * levels are solved and the file is (re)written first.
+     *
+     * @param path   The path of the solution database file
+     * @param levels The levels whose solutions are held by the database
+     * @return The solution database, or null if it could neither be read nor
+     * written
+     */
+    public static SolutionDatabase open(Path path, List<Board> levels) {
+        int checksum = checksum(levels);
+        try {
+            if (!isValid(path, checksum)) {
+                write(path, levels);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int slotCount = buffer.getInt(3 * Integer.BYTES);
+                buffer.position(HEADER_SIZE);
+                return new SolutionDatabase(buffer.slice(), slotCount);
+            }
+        } catch (IOException e) {
+            log.error("Could not open the solution database at " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Determines whether the specified file holds a solution database of the
+     * levels with the specified checksum.
+     *
+     * @param path     The path of the solution database file
+     * @param checksum The checksum of the levels
+     * @return True if the file holds the solution database of the levels, false
+     * otherwise
+     * @throws IOException If the file exists but cannot be read
+     */
+    private static boolean isValid(Path path, int checksum) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) != -1) {
+                // Keep reading until the header is complete
+            }
+            header.flip();
+            return header.getInt() == MAGIC && header.getInt() == VERSION && header.getInt() == checksum &&
+                    Files.size(path) == HEADER_SIZE + (long) header.getInt() * SLOT_SIZE;
+        }
+    }
+
+    /**
+     * Solves the specified levels and writes their solution database into the
+     * specified file. The file is replaced only once it is complete.
+     *
+     * @param path   The path of the solution database file
+     * @param levels The levels to solve
+     * @throws IOException If the file cannot be written
+     */
+    static void write(Path path, List<Board> levels) throws IOException {
+        Map<BoardState, Integer> solutions = new HashMap<>();
+        for (Board level : levels) {
+            solutions.putAll(Tablebase.analyze(level).getSolutions());
+        }
+
+        int slotCount = Integer.highestOneBit(Math.max(solutions.size(), 1) * 2 - 1) << 1;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + slotCount * SLOT_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(checksum(levels)).putInt(slotCount);
+        for (Map.Entry<BoardState, Integer> solution : solutions.entrySet()) {
+            BoardState state = solution.getKey();
+            int slot = hash(state.getLow(), state.getHigh()) & slotCount - 1;
+            while (buffer.getLong(HEADER_SIZE + slot * SLOT_SIZE) != 0 ||
+                    buffer.getLong(HEADER_SIZE + slot * SLOT_SIZE + Long.BYTES) != 0) {
+                slot = slot + 1 & slotCount - 1;
+            }
+            buffer.position(HEADER_SIZE + slot * SLOT_SIZE);
+            buffer.putLong(state.getLow()).putLong(state.getHigh())
+                    .putShort((short) (solution.getValue() & 0xFFFF)).putShort((short) (solution.getValue() >>> 16));
+        }
+        buffer.position(0);
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Computes a checksum of the specified levels, used to detect a database
+     * holding the solutions of other levels.
+     *
+     * @param levels The levels
+     * @return The checksum of the levels
+     */
+    private static int checksum(List<Board> levels) {
+        CRC32 crc = new CRC32();
+        for (Board level : levels) {
+            crc.update(level.toString().getBytes());
+            crc.update('\n');
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Computes the hash of a state stored in the database. Independent from
+     * {@link BoardState#hashCode()}, so that the layout of database files never
+     * changes with it.
+     *
+     * @param low  The low long of the state
+     * @param high The high long of the state
+     * @return The hash of the state
+     */
+    private static int hash(long low, long high) {
+        long hash = low * 0x9E3779B97F4A7C15L + high * 0xC2B2AE3D27D4EB4FL;
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    /**
+     * Finds the slot holding the specified state.
+     *
+     * @param state The state to look for
+     * @return The byte offset of the slot holding the state, or -1 if the state is
+     * not in the database
+     */
+    private int find(BoardState state) {
+        if (state.getLow() == 0 && state.getHigh() == 0) {
+            // The state of an empty board is made of two zeros, like an empty slot, and is never stored
+            return -1;
+        }
+        for (int slot = hash(state.getLow(), state.getHigh()) & mask; ; slot = slot + 1 & mask) {
+            long low = slots.getLong(slot * SLOT_SIZE);
+            long high = slots.getLong(slot * SLOT_SIZE + Long.BYTES);
+            if (low == state.getLow() && high == state.getHigh()) {
+                return slot * SLOT_SIZE;
+            } else if (low == 0 && high == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * @param state The state whose next best move is to be determined
+     * @return The next best packed move for the state (see
+     * {@link Move#pack(int, int)}), or -1 if the state is not in the database
+     */
+    public int getMove(BoardState state) {
+        int offset = find(state);
+        return offset == -1 ? -1 : slots.getShort(offset + 2 * Long.BYTES) & 0xFFFF;
+    }
+
+    /**
+     * @param state The state whose distance to a winning state is to be determined
+     * @return The number of moves separating the state from a winning state, or -1
+     * if the state is not in the database
+     */
+    public int getDistance(BoardState state) {
+        int offset = find(state);
+        return offset == -1 ? -1 : slots.getShort(offset + 2 * Long.BYTES + Short.BYTES) & 0xFFFF;
+    }
+}
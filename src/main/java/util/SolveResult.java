@@ -0,0 +1,73 @@
+package util;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This class represents the outcome of solving a board: whether it can be solved
+ * and, if so, the next best move and the number of moves separating it from a
+ * winning state.
+ *
+ * @author Samuel Gamelin
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SolveResult {
+
+    /**
+     * The result of a board from which no winning state can be reached.
+     */
+    public static final SolveResult UNSOLVABLE = new SolveResult(Status.UNSOLVABLE, new Move(-1, -1, -1, -1), -1);
+
+    /**
+     * The result of a search that ran out of budget or was cancelled.
+     */
+    public static final SolveResult UNKNOWN = new SolveResult(Status.UNKNOWN, new Move(-1, -1, -1, -1), -1);
+
+    /**
+     * The possible outcomes of solving a board.
+     */
+    public enum Status {
+        /**
+         * A shortest winning path was found.
+         */
+        SOLVED,
+        /**
+         * No winning state can be reached.
+         */
+        UNSOLVABLE,
+        /**
+         * The search gave up before reaching a conclusion.
+         */
+        UNKNOWN
+    }
+
+    /**
+     * The outcome of solving the board.
+     */
+    private final Status status;
+
+    /**
+     * The next best move, which has an invalid direction if the board is not solved
+     * or is already in a winning state.
+     */
+    private final Move move;
+
+    /**
+     * The number of moves separating the board from a winning state, or -1 if the
+     * board is not solved.
+     */
+    private final int distance;
+
+    /**
+     * Creates the result of a solved board.
+     *
+     * @param move     The next best move
+     * @param distance The number of moves separating the board from a winning state
+     * @return The result of the solved board
+     */
+    static SolveResult solved(Move move, int distance) {
+        return new SolveResult(Status.SOLVED, move, distance);
+    }
+}
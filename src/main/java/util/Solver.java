@@ -3,10 +3,14 @@ package util;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import model.Board;
-import model.Fox;
-import model.Piece;
+import model.BoardState;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
 
 /**
  * This class is used to solve a board representing a state in the game of
@@ -18,7 +22,89 @@ import java.util.*;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class Solver {
 
-    private static List<Node> lastHint;
+    /**
+     * The number of frontier states below which a parallel breadth-first search
+     * expands states on the current thread rather than splitting the work further.
+     */
+    private static final int PARALLEL_THRESHOLD = 512;
+
+    /**
+     * The maximum number of states an iterative deepening search remembers within
+     * an iteration to avoid expanding them again.
+     */
+    private static final int TRANSPOSITION_CAPACITY = 1 << 18;
+
+    /**
+     * The result of an iteration of an iterative deepening search whose budget ran
+     * out.
+     */
+    private static final int EXHAUSTED = -2;
+
+    /**
+     * The maximum number of hints remembered by the solver.
+     */
+    private static final int HINT_CACHE_CAPACITY = 1 << 16;
+
+    /**
+     * The maximum number of states visited when searching for a way back onto a
+     * state whose distance to a winning state is known, before falling back to a
+     * full search.
+     */
+    private static final int RESOLVE_MAX_STATES = 1 << 12;
+
+    /**
+     * The hints known for every recently solved board state.
+     */
+    private static final HintCache HINT_CACHE = new HintCache(HINT_CACHE_CAPACITY);
+
+    /**
+     * The daemon threads solving boards in the background.
+     */
+    private static final ExecutorService SOLVER_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "Solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The precomputed solutions looked up before searching, if any.
+     */
+    private static volatile SolutionDatabase solutionDatabase;
+
+    /**
+     * True if breadth-first searches keep their visited states off-heap.
+     */
+    private static volatile boolean offHeapStates;
+
+    /**
+     * The strategies the solver can use to search for a winning path. Every
+     * strategy finds a shortest winning path.
+     */
+    public enum Strategy {
+        /**
+         * A breadth-first search performed on the calling thread.
+         */
+        BREADTH_FIRST,
+        /**
+         * A level-synchronous breadth-first search, each level of which is expanded
+         * across the common fork/join pool.
+         */
+        PARALLEL_BREADTH_FIRST,
+        /**
+         * A breadth-first search stemming both from the board and, through reverse
+         * moves, from every winning board, until the two searches meet.
+         */
+        BIDIRECTIONAL,
+        /**
+         * An A* search guided by {@link BoardState#getMinimumMovesToWin()}.
+         */
+        A_STAR,
+        /**
+         * An iterative deepening A* search guided by
+         * {@link BoardState#getMinimumMovesToWin()}, whose memory use is bounded.
+         */
+        ITERATIVE_DEEPENING_A_STAR
+    }
 
     /**
      * Determines the next best move, given a board object.
@@ -28,98 +114,826 @@ public final class Solver {
      * with an invalid direction is returned.
      */
     public static Move getNextBestMove(Board board) {
+        return getNextBestMove(board, Strategy.BREADTH_FIRST);
+    }
+
+    /**
+     * Determines the next best move, given a board object and the strategy to use
+     * should a new winning path have to be searched for.
+     *
+     * @param board    The board whose next best move is to be determined
+     * @param strategy The strategy used to search for a winning path
+     * @return The next best move. Should there be no next best move, a move object
+     * with an invalid direction is returned.
+     */
+    public static Move getNextBestMove(Board board, Strategy strategy) {
         if (board == null) {
             return new Move(-1, -1, -1, -1);
         }
+        return solve(BoardState.of(board), strategy, SearchBudget.unlimited()).getMove();
+    }
 
-        Node node = new Node(board);
+    /**
+     * Solves the specified board in the background. The search gives up, and the
+     * result is {@link SolveResult.Status#UNKNOWN}, once it has run for longer than
+     * the specified timeout, visited more than the specified number of states or
+     * been cancelled through the returned future. The board is read right away, so
+     * that it may be modified once this method returns.
+     *
+     * @param board     The board to solve
+     * @param strategy  The strategy used to search for a winning path
+     * @param timeout   The maximum duration of the search, or null if it has none
+     * @param maxStates The maximum number of states the search may visit
+     * @param progress  The callback notified, from the solving thread, of the
+     *                  number of states visited so far, or null
+     * @return The future result of solving the board
+     */
+    public static CompletableFuture<SolveResult> solveAsync(Board board, Strategy strategy, Duration timeout,
+                                                            int maxStates, IntConsumer progress) {
+        BoardState state = BoardState.of(board);
+        CompletableFuture<SolveResult> future = new CompletableFuture<>();
+        SearchBudget budget = new SearchBudget(timeout, maxStates, progress, future::isDone);
+        SOLVER_EXECUTOR.execute(() -> {
+            try {
+                future.complete(solve(state, strategy, budget));
+            } catch (RuntimeException | OutOfMemoryError e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Speculatively solves, in the background, the boards the specified board leads
+     * to through the specified candidate moves, so that their hints are cached by
+     * the time the player makes one of them. The board itself is solved first, and
+     * the board its next best move leads to is then solved before the others, as it
+     * is the most likely next board. Every search shares the specified deadline but
+     * may visit the specified number of states on its own, and stops once the
+     * returned future is cancelled.
+     *
+     * @param board     The board whose next boards are to be solved
+     * @param moves     The packed candidate moves (see {@link Move#pack(int, int)})
+     * @param count     The number of candidate moves
+     * @param strategy  The strategy used to search for a winning path
+     * @param timeout   The maximum duration of the searches, or null if they have
+     *                  none
+     * @param maxStates The maximum number of states a search may visit
+     * @return The future completed once every next board is solved or the budget
+     * ran out
+     */
+    public static CompletableFuture<Void> precomputeAsync(Board board, int[] moves, int count, Strategy strategy,
+                                                          Duration timeout, int maxStates) {
+        BoardState state = BoardState.of(board);
+        int[] candidates = Arrays.copyOf(moves, count);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        SearchBudget budget = new SearchBudget(timeout, maxStates, null, future::isDone);
+        SOLVER_EXECUTOR.execute(() -> {
+            try {
+                Set<BoardState> nextStates = new LinkedHashSet<>();
+                Move hint = solve(state, strategy, budget.fork()).getMove();
+                if (hint.xStart != -1) {
+                    nextStates.add(state.move(hint.pack()));
+                }
+                for (int move : candidates) {
+                    nextStates.add(state.move(move));
+                }
+                for (BoardState next : nextStates) {
+                    if (budget.isExpired()) {
+                        break;
+                    } else if (!next.isInWinningState()) {
+                        solve(next, strategy, budget.fork());
+                    }
+                }
+                future.complete(null);
+            } catch (RuntimeException | OutOfMemoryError e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
 
-        if (lastHint == null || !lastHint.contains(node)) {
-            lastHint = cleanNodeList(breadthFirstSearch(node));
+    /**
+     * Solves the specified state, looking up its next best move in the solution
+     * database and among the hints before searching for it.
+     *
+     * @param state    The state to solve
+     * @param strategy The strategy used to search for a winning path
+     * @param budget   The budget of the search
+     * @return The result of solving the state
+     */
+    private static SolveResult solve(BoardState state, Strategy strategy, SearchBudget budget) {
+        if (state.isInWinningState()) {
+            return SolveResult.solved(new Move(-1, -1, -1, -1), 0);
+        } else if (state.isDead()) {
+            return SolveResult.UNSOLVABLE;
         }
 
-        if (!lastHint.isEmpty()) {
-            int boardOne = lastHint.indexOf(node);
-            if (lastHint.size() > boardOne) {
-                return lastHint.get(boardOne).getMoveTo(lastHint.get(boardOne + 1));
-            }
+        SolutionDatabase database = solutionDatabase;
+        int move = database != null ? database.getMove(state) : -1;
+        if (move != -1) {
+            return SolveResult.solved(Move.unpack(move), database.getDistance(state));
+        }
+        move = HINT_CACHE.getMove(state);
+        if (move != -1) {
+            return SolveResult.solved(Move.unpack(move), HINT_CACHE.getDistance(state));
+        }
+
+        // The player most likely strayed from a known winning path by a few moves
+        SolveResult result = resolve(state, budget);
+        if (result != null) {
+            return result;
+        } else if (budget.isExhausted()) {
+            return SolveResult.UNKNOWN;
         }
-        return new Move(-1, -1, -1, -1);
+
+        List<Node> path = search(new Node(state), strategy, budget);
+        if (path == null) {
+            return SolveResult.UNKNOWN;
+        } else if (path.isEmpty()) {
+            return SolveResult.UNSOLVABLE;
+        }
+        HINT_CACHE.putPath(path);
+        move = HINT_CACHE.getMove(state);
+        return move == -1 ? SolveResult.UNKNOWN : SolveResult.solved(Move.unpack(move), HINT_CACHE.getDistance(state));
+    }
+
+    /**
+     * Determines the distance of the specified state to a winning state, should it
+     * already be known.
+     *
+     * @param state The state whose distance to a winning state is to be determined
+     * @return The number of moves separating the state from a winning state, or -1
+     * if it is not known
+     */
+    private static int getKnownDistance(BoardState state) {
+        if (state.isInWinningState()) {
+            return 0;
+        }
+        SolutionDatabase database = solutionDatabase;
+        int distance = database != null ? database.getDistance(state) : -1;
+        return distance != -1 ? distance : HINT_CACHE.getDistance(state);
     }
 
     /**
-     * Cleans the list from unwanted fox moves (repeated, consecutive moves with the
-     * same fox).
+     * Solves the specified state by searching for the fewest moves leading back onto
+     * a state whose distance to a winning state is already known, reusing the
+     * winning paths of the previous searches. The search is breadth-first, and keeps
+     * the shortest of the winning paths through the known states it reaches until
+     * no deeper state could yield a shorter one, so that the winning path found is
+     * a shortest one. It is found within a few hundred states when the player
+     * strayed from a known winning path by a move or two. Should the search stop
+     * after {@link #RESOLVE_MAX_STATES} states, or once its budget ran out, before
+     * the winning path found is known to be a shortest one, the path is discarded
+     * rather than cached.
      *
-     * @param nodeList The list of nodes to clean
-     * @return A list of nodes where unwanted nodes have been removed
+     * @param start  The state to solve, whose next best move is not known
+     * @param budget The budget of the search
+     * @return The result of solving the state, or null if no shortest winning path
+     * through a known state was found before the search stopped
      */
-    private static List<Node> cleanNodeList(List<Node> nodeList) {
-        if (nodeList == null || nodeList.size() < 3) {
-            return nodeList;
+    static SolveResult resolve(BoardState start, SearchBudget budget) {
+        // Every discovered state is mapped to its parent, the start to itself
+        Map<BoardState, BoardState> parentMap = new HashMap<>();
+        parentMap.put(start, start);
+        List<BoardState> level = Collections.singletonList(start);
+        int[] moves = new int[Board.MAX_MOVES];
+        BoardState known = null;
+        int shortest = Integer.MAX_VALUE;
+
+        for (int depth = 1; depth < shortest && !level.isEmpty(); depth++) {
+            if (parentMap.size() > RESOLVE_MAX_STATES || budget.isExhausted(parentMap.size())) {
+                // A shallower known state may not have been reached yet, so the path found may not be a shortest one
+                return null;
+            }
+            List<BoardState> nextLevel = new ArrayList<>();
+            for (BoardState state : level) {
+                int count = state.getPossibleMoves(moves);
+                for (int i = 0; i < count; i++) {
+                    BoardState child = state.move(moves[i]);
+                    if (parentMap.putIfAbsent(child, state) != null || child.isDead()) {
+                        continue;
+                    }
+                    int distance = getKnownDistance(child);
+                    if (distance == -1) {
+                        nextLevel.add(child);
+                    } else if (depth + distance < shortest) {
+                        shortest = depth + distance;
+                        known = child;
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+        if (known == null) {
+            // Unless every reachable state was visited without reaching a winning state
+            return level.isEmpty() ? SolveResult.UNSOLVABLE : null;
         }
-        List<Node> removeFromList = new ArrayList<>();
 
-        for (int i = 0; i < nodeList.size() - 3; i++) {
-            Node node1 = nodeList.get(i);
-            Node node2 = nodeList.get(i + 1);
-            Node node3 = nodeList.get(i + 2);
+        List<Node> path = new LinkedList<>();
+        for (BoardState state = known; !state.equals(start); state = parentMap.get(state)) {
+            path.add(0, new Node(state));
+        }
+        path.add(0, new Node(start));
+        HINT_CACHE.putPath(path, getKnownDistance(known));
+        int move = HINT_CACHE.getMove(start);
+        return move == -1 ? null : SolveResult.solved(Move.unpack(move), HINT_CACHE.getDistance(start));
+    }
+
+    /**
+     * Makes the solver look up the next best move in the specified solution
+     * database before searching for it.
+     *
+     * @param database The solution database to use, or null to stop using one
+     */
+    public static void useSolutionDatabase(SolutionDatabase database) {
+        solutionDatabase = database;
+    }
+
+    /**
+     * Sets whether breadth-first searches keep their visited states off-heap, in a
+     * direct buffer, rather than on the heap.
+     *
+     * @param offHeap True to keep visited states off-heap, false otherwise
+     */
+    public static void setOffHeapStates(boolean offHeap) {
+        offHeapStates = offHeap;
+    }
+
+    /**
+     * Persists the hints of the solver in the specified file. The hints already
+     * saved in that file are loaded right away, and the hints known to the solver
+     * are saved back into it when the virtual machine shuts down.
+     *
+     * @param path The path of the file holding the hints
+     */
+    public static void persistHints(Path path) {
+        HINT_CACHE.load(path);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> HINT_CACHE.save(path), "Hint Cache"));
+    }
+
+    /**
+     * Determines whether the specified board can be solved, that is whether it is in
+     * a winning state or a winning path stems from it.
+     *
+     * @param board    The board to check
+     * @param strategy The strategy used to search for a winning path
+     * @return True if the board can be solved, false otherwise
+     */
+    public static boolean isSolvable(Board board, Strategy strategy) {
+        Node node = new Node(board);
+        return node.isWinningNode() || !search(node, strategy).isEmpty();
+    }
+
+    /**
+     * Searches for a shortest winning path from the specified node using the
+     * specified strategy.
+     *
+     * @param root     The node from which to stem the search
+     * @param strategy The strategy used to search for a winning path
+     * @return The list of nodes that form the winning path. Should there be no
+     * winning path, this list will be empty.
+     */
+    static List<Node> search(Node root, Strategy strategy) {
+        return search(root, strategy, SearchBudget.unlimited());
+    }
+
+    /**
+     * Searches for a shortest winning path from the specified node using the
+     * specified strategy, within the specified budget.
+     *
+     * @param root     The node from which to stem the search
+     * @param strategy The strategy used to search for a winning path
+     * @param budget   The budget of the search
+     * @return The list of nodes that form the winning path. Should there be no
+     * winning path, this list will be empty. Should the budget run out first, null
+     * is returned.
+     */
+    static List<Node> search(Node root, Strategy strategy, SearchBudget budget) {
+        if (root.getState().isDead()) {
+            return new ArrayList<>();
+        }
+        switch (strategy) {
+            case PARALLEL_BREADTH_FIRST:
+                return parallelBreadthFirstSearch(root, budget);
+            case BIDIRECTIONAL:
+                return bidirectionalSearch(root, budget);
+            case A_STAR:
+                return aStarSearch(root, budget);
+            case ITERATIVE_DEEPENING_A_STAR:
+                return iterativeDeepeningSearch(root, budget);
+            case BREADTH_FIRST:
+            default:
+                return breadthFirstSearch(root, budget);
+        }
+    }
 
-            Move from1to2 = node1.getMoveTo(node2);
-            Move from2to3 = node2.getMoveTo(node3);
+    /**
+     * Performs a breadth-first search on the specified node. The search is carried
+     * out over canonical states (see {@link BoardState#getCanonicalState()}), so
+     * that states equivalent by symmetry are only visited once, and the winning
+     * path found is then mapped back onto the actual board. Moves are generated in
+     * macro-move mode (see {@link BoardState#getPossibleMoves(int[], int)}), so that
+     * a fox is never slid twice in a row.
+     *
+     * @param root   The node from which to stem the search
+     * @param budget The budget of the search
+     * @return The list of nodes that form the winning path. Should there be no
+     * winning path, this list will be empty. Should the budget run out first, null
+     * is returned.
+     */
+    private static List<Node> breadthFirstSearch(Node root, SearchBudget budget) {
+        if (root.isWinningNode()) {
+            return new ArrayList<>();
+        }
 
-            Piece piece1 = node1.getBoard().getPiece(from1to2.xStart, from1to2.yStart);
-            Piece piece2 = node2.getBoard().getPiece(from2to3.xStart, from2to3.yStart);
+        // The tree of the search doubles as its queue, the next node to expand being at its head
+        SearchTree tree = new SearchTree(root.getState().getCanonicalState());
+        // States are marked as visited when discovered, so that they are only queued once
+        StateSet visited = new StateSet(1 << 12, offHeapStates);
+        visited.add(tree.getState(0));
+        int[] moves = new int[Board.MAX_MOVES];
+        int[] symmetry = new int[1];
 
-            if (piece1 instanceof Fox && piece2 instanceof Fox && ((Fox) piece1).id() == ((Fox) piece2).id()) {
-                removeFromList.add(node2);
+        for (int head = 0; head < tree.size(); head++) {
+            if (budget.isExhausted(tree.size())) {
+                return null;
+            }
+            BoardState state = tree.getState(head);
+            int count = state.getPossibleMoves(moves, head == 0 ? -1 : Move.end(tree.getMove(head)));
+            for (int i = 0; i < count; i++) {
+                BoardState child = state.move(moves[i]).getCanonicalState(symmetry);
+                // Deadlocks are never queued, as no winning path goes through them
+                if (!visited.add(child) || child.isDead()) {
+                    continue;
+                }
+                // The move is mapped onto the canonical child, so that its fox is not moved again from there
+                int node = tree.add(child, head, Move.pack(BoardState.getSymmetricSquare(symmetry[0],
+                        Move.start(moves[i])), BoardState.getSymmetricSquare(symmetry[0], Move.end(moves[i]))));
+                if (child.isInWinningState()) {
+                    return toWinningPath(root, tree, node);
+                }
             }
         }
+        return new ArrayList<>();
+    }
 
-        nodeList.removeAll(removeFromList);
-        return nodeList;
+    /**
+     * Maps the path of canonical states leading to the specified node of a search
+     * tree back onto the actual states it stands for, starting from the specified
+     * node. Every move between two canonical states has a counterpart between the
+     * actual states they stand for.
+     *
+     * @param root The node the path starts from
+     * @param tree The search tree, whose root is the canonical state of the node
+     * @param last The index of the last node of the path in the search tree
+     * @return The list of nodes that form the actual path
+     */
+    private static List<Node> toWinningPath(Node root, SearchTree tree, int last) {
+        int[] path = tree.getPath(last);
+        List<Node> winningPathList = new ArrayList<>(path.length);
+        winningPathList.add(root);
+        BoardState state = root.getState();
+        int[] moves = new int[Board.MAX_MOVES];
+        for (int i = 1; i < path.length; i++) {
+            BoardState canonical = tree.getState(path[i]);
+            int count = state.getPossibleMoves(moves);
+            for (int j = 0; j < count; j++) {
+                BoardState child = state.move(moves[j]);
+                if (child.getCanonicalState().equals(canonical)) {
+                    state = child;
+                    break;
+                }
+            }
+            winningPathList.add(new Node(state));
+        }
+        return winningPathList;
     }
 
     /**
-     * Performs a breadth-first search on the specified node.
+     * Performs a level-synchronous breadth-first search on the specified node. Each
+     * level of the search is expanded in parallel, and the next level is only
+     * started once the current one has been fully expanded, so that the path found
+     * is as short as the one found by {@link #breadthFirstSearch(Node, SearchBudget)}.
      *
-     * @param root The node from which to stem the search
+     * @param root   The node from which to stem the search
+     * @param budget The budget of the search
      * @return The list of nodes that form the winning path. Should there be no
-     * winning path, this list will be empty.
+     * winning path, this list will be empty. Should the budget run out first, null
+     * is returned.
      */
-    private static List<Node> breadthFirstSearch(Node root) {
+    private static List<Node> parallelBreadthFirstSearch(Node root, SearchBudget budget) {
+        List<Node> winningPathList = new LinkedList<>();
         if (root.isWinningNode()) {
-            return new LinkedList<>();
+            return winningPathList;
         }
 
-        Queue<Node> queue = new ArrayDeque<>();
-        queue.add(root);
+        // Every discovered state is mapped to its parent, the root to itself
+        Map<BoardState, BoardState> parentMap = new ConcurrentHashMap<>();
+        parentMap.put(root.getState(), root.getState());
+        AtomicReference<BoardState> winningState = new AtomicReference<>();
+        List<BoardState> level = Collections.singletonList(root.getState());
 
-        Set<Node> visited = new HashSet<>();
-        Map<Node, Node> parentMap = new HashMap<>();
+        while (!level.isEmpty() && winningState.get() == null) {
+            level = ForkJoinPool.commonPool().invoke(
+                    new LevelExpansion(level, 0, level.size(), parentMap, winningState, budget));
+            if (budget.isExhausted()) {
+                return null;
+            }
+        }
+
+        BoardState state = winningState.get();
+        if (state != null) {
+            while (!state.equals(root.getState())) {
+                winningPathList.add(0, new Node(state));
+                state = parentMap.get(state);
+            }
+            winningPathList.add(0, root);
+        }
+        return winningPathList;
+    }
+
+    /**
+     * Performs a bidirectional breadth-first search on the specified node. A
+     * forward search stems from the node, and a backward search stems from every
+     * winning state made of the same pieces, using reverse moves. The smaller of the
+     * two frontiers is expanded one level at a time, and the search stops at the end
+     * of the first level where the two searches meet, keeping the shortest of the
+     * paths found through that level.
+     *
+     * @param root   The node from which to stem the search
+     * @param budget The budget of the search
+     * @return The list of nodes that form the winning path. Should there be no
+     * winning path, this list will be empty. Should the budget run out first, null
+     * is returned.
+     */
+    private static List<Node> bidirectionalSearch(Node root, SearchBudget budget) {
         List<Node> winningPathList = new LinkedList<>();
+        BoardState start = root.getState();
+        if (start.isInWinningState()) {
+            return winningPathList;
+        }
 
-        while (!queue.isEmpty()) {
-            Node currentNode = queue.remove();
-            if (!visited.contains(currentNode)) {
-                visited.add(currentNode);
-                Set<Node> children = currentNode.getChildren();
-                children.removeAll(visited);
-                for (Node child : children) {
-                    parentMap.put(child, currentNode);
-                    if (child.isWinningNode()) {
-                        Node node = child;
-                        while (node != null) {
-                            winningPathList.add(0, node);
-                            node = parentMap.get(node);
+        // Every discovered state is mapped to its parent on its side, the roots to themselves
+        Map<BoardState, BoardState> forwardParents = new HashMap<>();
+        Map<BoardState, BoardState> backwardParents = new HashMap<>();
+        forwardParents.put(start, start);
+        List<BoardState> forwardLevel = Collections.singletonList(start);
+        List<BoardState> backwardLevel = new ArrayList<>(start.getWinningStates());
+        for (BoardState goal : backwardLevel) {
+            backwardParents.put(goal, goal);
+        }
+        int[] moves = new int[Board.MAX_MOVES];
+
+        while (!forwardLevel.isEmpty() && !backwardLevel.isEmpty()) {
+            boolean forward = forwardLevel.size() <= backwardLevel.size();
+            Map<BoardState, BoardState> parents = forward ? forwardParents : backwardParents;
+            Map<BoardState, BoardState> otherParents = forward ? backwardParents : forwardParents;
+            List<BoardState> nextLevel = new ArrayList<>();
+            BoardState meeting = null;
+            int shortest = Integer.MAX_VALUE;
+
+            for (BoardState state : forward ? forwardLevel : backwardLevel) {
+                if (budget.isExhausted(forwardParents.size() + backwardParents.size())) {
+                    return null;
+                }
+                int count = forward ? state.getPossibleMoves(moves) : state.getReverseMoves(moves);
+                for (int i = 0; i < count; i++) {
+                    BoardState child = state.move(moves[i]);
+                    if (parents.putIfAbsent(child, state) != null || forward && child.isDead()) {
+                        continue;
+                    }
+                    if (otherParents.containsKey(child)) {
+                        int length = depth(forwardParents, child) + depth(backwardParents, child);
+                        if (length < shortest) {
+                            shortest = length;
+                            meeting = child;
                         }
-                        return winningPathList;
                     } else {
-                        queue.add(child);
+                        nextLevel.add(child);
                     }
                 }
             }
+
+            if (meeting != null) {
+                for (BoardState state = meeting; ; state = forwardParents.get(state)) {
+                    winningPathList.add(0, new Node(state));
+                    if (state.equals(start)) {
+                        break;
+                    }
+                }
+                for (BoardState state = meeting; !backwardParents.get(state).equals(state); ) {
+                    state = backwardParents.get(state);
+                    winningPathList.add(new Node(state));
+                }
+                return winningPathList;
+            }
+            if (forward) {
+                forwardLevel = nextLevel;
+            } else {
+                backwardLevel = nextLevel;
+            }
+        }
+        return winningPathList;
+    }
+
+    /**
+     * Performs an A* search on the specified node, using
+     * {@link BoardState#getMinimumMovesToWin()} as a consistent heuristic. States
+     * are expanded at most once, by increasing estimated length of the winning
+     * path through them.
+     *
+     * @param root   The node from which to stem the search
+     * @param budget The budget of the search
+     * @return The list of nodes that form the winning path. Should there be no
+     * winning path, this list will be empty. Should the budget run out first, null
+     * is returned.
+     */
+    private static List<Node> aStarSearch(Node root, SearchBudget budget) {
+        List<Node> winningPathList = new LinkedList<>();
+        BoardState start = root.getState();
+        if (start.isInWinningState()) {
+            return winningPathList;
+        }
+
+        // Every discovered state is mapped to its parent, the root to itself
+        Map<BoardState, BoardState> parentMap = new HashMap<>();
+        Map<BoardState, Integer> lengths = new HashMap<>();
+        Set<BoardState> expanded = new HashSet<>();
+        Queue<Frontier> queue = new PriorityQueue<>();
+        parentMap.put(start, start);
+        lengths.put(start, 0);
+        queue.add(new Frontier(start, 0));
+        int[] moves = new int[Board.MAX_MOVES];
+
+        while (!queue.isEmpty()) {
+            Frontier frontier = queue.remove();
+            BoardState state = frontier.state;
+            if (!expanded.add(state)) {
+                continue;
+            }
+            if (budget.isExhausted(lengths.size())) {
+                return null;
+            }
+            if (state.isInWinningState()) {
+                for (; !state.equals(start); state = parentMap.get(state)) {
+                    winningPathList.add(0, new Node(state));
+                }
+                winningPathList.add(0, root);
+                return winningPathList;
+            }
+            int count = state.getPossibleMoves(moves);
+            for (int i = 0; i < count; i++) {
+                BoardState child = state.move(moves[i]);
+                Integer length = lengths.get(child);
+                if (length == null && child.isDead()) {
+                    continue;
+                } else if (length == null || length > frontier.length + 1) {
+                    lengths.put(child, frontier.length + 1);
+                    parentMap.put(child, state);
+                    queue.add(new Frontier(child, frontier.length + 1));
+                }
+            }
         }
         return winningPathList;
     }
+
+    /**
+     * Performs an iterative deepening A* search on the specified node. Each
+     * iteration is a depth-first search bounded by the estimated length of the
+     * winning path, {@link BoardState#getMinimumMovesToWin()} being used as the
+     * estimate of the remaining length. A bounded table of the states seen within
+     * an iteration avoids expanding the same state twice at no lesser depth. Once
+     * an iteration expanded every state it cut off at the bound, the reachable
+     * states were all seen without reaching a winning state, and the deepening
+     * stops.
+     *
+     * @param root   The node from which to stem the search
+     * @param budget The budget of the search
+     * @return The list of nodes that form the winning path. Should there be no
+     * winning path, this list will be empty. Should the budget run out first, null
+     * is returned.
+     */
+    private static List<Node> iterativeDeepeningSearch(Node root, SearchBudget budget) {
+        List<Node> winningPathList = new LinkedList<>();
+        BoardState start = root.getState();
+        if (start.isInWinningState()) {
+            return winningPathList;
+        }
+
+        Deque<BoardState> path = new ArrayDeque<>();
+        Map<BoardState, Integer> transpositions = new HashMap<>();
+        Set<BoardState> cutOff = new HashSet<>();
+        int[] visited = new int[1];
+        int bound = start.getMinimumMovesToWin();
+        while (bound != Integer.MAX_VALUE) {
+            transpositions.clear();
+            cutOff.clear();
+            path.push(start);
+            bound = boundedSearch(path, 0, bound, transpositions, cutOff, new int[bound + 1][Board.MAX_MOVES],
+                    budget, visited);
+            if (bound == EXHAUSTED) {
+                return null;
+            } else if (bound == -1) {
+                for (BoardState state : path) {
+                    winningPathList.add(0, new Node(state));
+                }
+                break;
+            } else if (transpositions.size() < TRANSPOSITION_CAPACITY && cutOff.size() < TRANSPOSITION_CAPACITY &&
+                    transpositions.keySet().containsAll(cutOff)) {
+                // Every child of every seen state was seen too, so a deeper bound cannot reach any other state
+                break;
+            }
+            path.clear();
+        }
+        return winningPathList;
+    }
+
+    /**
+     * Performs the depth-first search of an iteration of an iterative deepening A*
+     * search from the state on top of the specified path.
+     *
+     * @param path           The states from the root to the current state, the
+     *                       current state being on top
+     * @param length         The number of moves made to reach the current state
+     * @param bound          The maximum estimated length of the winning path
+     * @param transpositions The smallest number of moves with which every state was
+     *                       reached so far within this iteration
+     * @param cutOff         The states cut off at the bound so far within this
+     *                       iteration, when they were not seen yet
+     * @param moves          A move buffer for every depth of the search
+     * @param budget         The budget of the search
+     * @param visited        The number of states visited by the search so far, as a
+     *                       single element
+     * @return -1 if a winning state was reached, in which case it is on top of the
+     * path, {@link #EXHAUSTED} if the budget ran out, otherwise the smallest
+     * estimated length that exceeded the bound, or {@link Integer#MAX_VALUE} if
+     * there was none
+     */
+    private static int boundedSearch(Deque<BoardState> path, int length, int bound,
+                                     Map<BoardState, Integer> transpositions, Set<BoardState> cutOff,
+                                     int[][] moves, SearchBudget budget, int[] visited) {
+        if (budget.isExhausted(++visited[0])) {
+            return EXHAUSTED;
+        }
+        BoardState state = path.peek();
+        int estimate = length + state.getMinimumMovesToWin();
+        if (estimate > bound) {
+            if (cutOff.size() < TRANSPOSITION_CAPACITY && !transpositions.containsKey(state)) {
+                cutOff.add(state);
+            }
+            return estimate;
+        }
+        if (state.isInWinningState()) {
+            return -1;
+        }
+        Integer seen = transpositions.get(state);
+        if (seen != null && seen <= length) {
+            return Integer.MAX_VALUE;
+        }
+        if (seen != null || transpositions.size() < TRANSPOSITION_CAPACITY) {
+            transpositions.put(state, length);
+        }
+
+        int next = Integer.MAX_VALUE;
+        int count = state.getPossibleMoves(moves[length]);
+        for (int i = 0; i < count; i++) {
+            BoardState child = state.move(moves[length][i]);
+            if (path.contains(child) || child.isDead()) {
+                continue;
+            }
+            path.push(child);
+            int result = boundedSearch(path, length + 1, bound, transpositions, cutOff, moves, budget, visited);
+            if (result == -1 || result == EXHAUSTED) {
+                return result;
+            }
+            path.pop();
+            next = Math.min(next, result);
+        }
+        return next;
+    }
+
+    /**
+     * A state waiting to be expanded by an A* search, ordered by the estimated
+     * length of the winning path through it, and then by decreasing length of the
+     * path leading to it.
+     */
+    private static final class Frontier implements Comparable<Frontier> {
+
+        private final BoardState state;
+
+        private final int length;
+
+        private final int estimate;
+
+        /**
+         * Creates a frontier entry for the specified state.
+         *
+         * @param state  The state to expand
+         * @param length The number of moves made to reach the state
+         */
+        Frontier(BoardState state, int length) {
+            this.state = state;
+            this.length = length;
+            this.estimate = length + state.getMinimumMovesToWin();
+        }
+
+        @Override
+        public int compareTo(Frontier other) {
+            return estimate != other.estimate ? Integer.compare(estimate, other.estimate) :
+                    Integer.compare(other.length, length);
+        }
+    }
+
+    /**
+     * Determines the depth of a state discovered by a search, that is the number of
+     * parents separating it from a state mapped to itself.
+     *
+     * @param parents The parents of every state discovered by the search
+     * @param state   The state whose depth is to be determined
+     * @return The depth of the state
+     */
+    private static int depth(Map<BoardState, BoardState> parents, BoardState state) {
+        int depth = 0;
+        for (BoardState parent = parents.get(state); !parent.equals(state); parent = parents.get(state)) {
+            state = parent;
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * A task expanding a range of the states of a level of a parallel breadth-first
+     * search, and returning the newly discovered states forming the next level.
+     */
+    @SuppressWarnings("serial")
+    private static final class LevelExpansion extends RecursiveTask<List<BoardState>> {
+
+        private final List<BoardState> level;
+
+        private final int from;
+
+        private final int to;
+
+        private final Map<BoardState, BoardState> parentMap;
+
+        private final AtomicReference<BoardState> winningState;
+
+        private final SearchBudget budget;
+
+        /**
+         * Creates a task expanding the states of the specified level whose indices
+         * are within the specified range.
+         *
+         * @param level        The states of the level to expand
+         * @param from         The index of the first state to expand, inclusive
+         * @param to           The index of the last state to expand, exclusive
+         * @param parentMap    The parents of every state discovered so far
+         * @param winningState Set to the first winning state discovered
+         * @param budget       The budget of the search
+         */
+        LevelExpansion(List<BoardState> level, int from, int to, Map<BoardState, BoardState> parentMap,
+                       AtomicReference<BoardState> winningState, SearchBudget budget) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+            this.parentMap = parentMap;
+            this.winningState = winningState;
+            this.budget = budget;
+        }
+
+        @Override
+        protected List<BoardState> compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                LevelExpansion left = new LevelExpansion(level, from, middle, parentMap, winningState, budget);
+                left.fork();
+                List<BoardState> right = new LevelExpansion(level, middle, to, parentMap, winningState, budget)
+                        .compute();
+                List<BoardState> next = left.join();
+                next.addAll(right);
+                return next;
+            }
+
+            List<BoardState> next = new ArrayList<>();
+            int[] moves = new int[Board.MAX_MOVES];
+            for (int i = from; i < to && winningState.get() == null && !budget.isExhausted(parentMap.size()); i++) {
+                BoardState state = level.get(i);
+                int count = state.getPossibleMoves(moves);
+                for (int j = 0; j < count; j++) {
+                    BoardState child = state.move(moves[j]);
+                    // Only the first task to discover a state keeps it
+                    if (parentMap.putIfAbsent(child, state) != null || child.isDead()) {
+                        continue;
+                    }
+                    if (child.isInWinningState()) {
+                        winningState.compareAndSet(null, child);
+                        break;
+                    }
+                    next.add(child);
+                }
+            }
+            return next;
+        }
+    }
 }
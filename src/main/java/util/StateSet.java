@@ -0,0 +1,202 @@
+package util;
+
+import model.BoardState;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * This class represents a set of board states stored as pairs of primitive
+ * longs in an open-addressing hash table with linear probing. No object is
+ * allocated per state, and the table can live off-heap, in a direct buffer, so
+ * that large searches neither fill the heap nor put pressure on the garbage
+ * collector.
+ *
+ * @author Samuel Gamelin
+ */
+public final class StateSet {
+
+    /**
+     * The maximum number of slots of a table on the heap, as its longs must be
+     * indexable by an int.
+     */
+    private static final int MAX_HEAP_SLOTS = 1 << 27;
+
+    /**
+     * The maximum number of slots of a table in a direct buffer, as its 16-byte
+     * slots must fit in a single buffer of at most {@link Integer#MAX_VALUE} bytes.
+     */
+    private static final int MAX_DIRECT_SLOTS = 1 << 26;
+
+    /**
+     * True if the table lives in a direct buffer, false otherwise.
+     */
+    private final boolean offHeap;
+
+    /**
+     * The maximum number of slots of the table.
+     */
+    private final int maxSlots;
+
+    /**
+     * The slots of the table, two longs per slot. An empty slot holds two zeros.
+     */
+    private LongBuffer slots;
+
+    /**
+     * The mask applied to a hash to obtain a slot index.
+     */
+    private int mask;
+
+    /**
+     * The number of states in this set.
+     */
+    private int size;
+
+    /**
+     * True if this set contains the state of an empty board, which cannot be held
+     * by a slot as it is made of two zeros.
+     */
+    private boolean containsEmpty;
+
+    /**
+     * Creates an empty set of states.
+     *
+     * @param expectedSize The number of states the set is expected to hold
+     * @param offHeap      True if the set should live in a direct buffer, false if it
+     *                     should live on the heap
+     */
+    public StateSet(int expectedSize, boolean offHeap) {
+        this.offHeap = offHeap;
+        this.maxSlots = offHeap ? MAX_DIRECT_SLOTS : MAX_HEAP_SLOTS;
+        allocate(Integer.highestOneBit(Math.max(Math.min(expectedSize, maxSlots / 2), 8) * 2 - 1) << 1);
+    }
+
+    /**
+     * Allocates an empty table with the specified number of slots.
+     *
+     * @param slotCount The number of slots, a power of two no greater than the
+     *                  maximum number of slots
+     */
+    private void allocate(int slotCount) {
+        slots = offHeap ? ByteBuffer.allocateDirect(Math.toIntExact((long) slotCount * 2 * Long.BYTES))
+                .order(ByteOrder.nativeOrder()).asLongBuffer() : LongBuffer.allocate(Math.toIntExact(slotCount * 2L));
+        mask = slotCount - 1;
+    }
+
+    /**
+     * Computes the hash of a state.
+     *
+     * @param low  The low long of the state
+     * @param high The high long of the state
+     * @return The hash of the state
+     */
+    private static int hash(long low, long high) {
+        long hash = low * 0x9E3779B97F4A7C15L + high * 0xC2B2AE3D27D4EB4FL;
+        return (int) (hash ^ hash >>> 29);
+    }
+
+    /**
+     * Adds a state to this set, if it is not already present.
+     *
+     * @param state The state to add
+     * @return True if the state was added, false if it was already present
+     */
+    public boolean add(BoardState state) {
+        return add(state.getLow(), state.getHigh());
+    }
+
+    /**
+     * Adds a state to this set, if it is not already present.
+     *
+     * @param low  The low long of the state
+     * @param high The high long of the state
+     * @return True if the state was added, false if it was already present
+     */
+    public boolean add(long low, long high) {
+        if (low == 0 && high == 0) {
+            boolean added = !containsEmpty;
+            containsEmpty = true;
+            size += added ? 1 : 0;
+            return added;
+        }
+        int slot = hash(low, high) & mask;
+        while (true) {
+            long slotLow = slots.get(2 * slot);
+            long slotHigh = slots.get(2 * slot + 1);
+            if (slotLow == 0 && slotHigh == 0) {
+                break;
+            } else if (slotLow == low && slotHigh == high) {
+                return false;
+            }
+            slot = slot + 1 & mask;
+        }
+        slots.put(2 * slot, low);
+        slots.put(2 * slot + 1, high);
+        if (++size > (mask + 1) / 2) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Doubles the number of slots of the table, moving every state to its new slot.
+     *
+     * @throws IllegalStateException If the table cannot grow any further
+     */
+    private void grow() {
+        if (mask + 1 >= maxSlots) {
+            throw new IllegalStateException("The state set cannot hold more than " + maxSlots / 2 + " states");
+        }
+        LongBuffer oldSlots = slots;
+        allocate((mask + 1) * 2);
+        for (int i = 0; i < oldSlots.capacity(); i += 2) {
+            long low = oldSlots.get(i);
+            long high = oldSlots.get(i + 1);
+            if (low != 0 || high != 0) {
+                int slot = hash(low, high) & mask;
+                while (slots.get(2 * slot) != 0 || slots.get(2 * slot + 1) != 0) {
+                    slot = slot + 1 & mask;
+                }
+                slots.put(2 * slot, low);
+                slots.put(2 * slot + 1, high);
+            }
+        }
+    }
+
+    /**
+     * @param state A state
+     * @return True if this set contains the state, false otherwise
+     */
+    public boolean contains(BoardState state) {
+        long low = state.getLow();
+        long high = state.getHigh();
+        if (low == 0 && high == 0) {
+            return containsEmpty;
+        }
+        for (int slot = hash(low, high) & mask; ; slot = slot + 1 & mask) {
+            long slotLow = slots.get(2 * slot);
+            long slotHigh = slots.get(2 * slot + 1);
+            if (slotLow == low && slotHigh == high) {
+                return true;
+            } else if (slotLow == 0 && slotHigh == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return The number of states in this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if this set lives in a direct buffer, false otherwise
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+}
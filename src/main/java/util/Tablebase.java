@@ -0,0 +1,286 @@
+package util;
+
+import lombok.Getter;
+import model.Board;
+import model.BoardState;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * This class represents the retrograde analysis of a level. Every state
+ * reachable from the level is enumerated, and a backward sweep from the
+ * reachable winning states then labels every state with its exact distance to
+ * a winning state and its next best move, or as dead if no winning state can be
+ * reached from it. A tablebase can be written to and read from a binary file.
+ *
+ * @author Samuel Gamelin
+ */
+public final class Tablebase {
+
+    /**
+     * The distance of a dead state, from which no winning state can be reached.
+     */
+    public static final int DEAD = -1;
+
+    /**
+     * The first four bytes of every tablebase file.
+     */
+    private static final int MAGIC = 0x52414654;
+
+    /**
+     * The version of the format of tablebase files.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The label of every reachable state: its distance to a winning state (upper
+     * 16 bits) and its next best packed move (lower 16 bits), or {@link #DEAD}.
+     * Winning states have a distance of zero and no move.
+     */
+    private final Map<BoardState, Integer> labels;
+
+    /**
+     * The state the analysis stems from.
+     */
+    @Getter
+    private final BoardState root;
+
+    /**
+     * The number of dead states.
+     */
+    @Getter
+    private final int deadStateCount;
+
+    /**
+     * The largest distance to a winning state of any reachable state.
+     */
+    @Getter
+    private final int maximumDistance;
+
+    /**
+     * Creates a tablebase from the specified labels.
+     *
+     * @param root   The state the analysis stems from
+     * @param labels The label of every reachable state
+     */
+    private Tablebase(BoardState root, Map<BoardState, Integer> labels) {
+        this.root = root;
+        this.labels = labels;
+        int dead = 0;
+        int maximum = 0;
+        for (int label : labels.values()) {
+            if (label == DEAD) {
+                dead++;
+            } else {
+                maximum = Math.max(maximum, label >>> 16);
+            }
+        }
+        this.deadStateCount = dead;
+        this.maximumDistance = maximum;
+    }
+
+    /**
+     * Performs the retrograde analysis of the specified level.
+     *
+     * @param level The level to analyze
+     * @return The tablebase of the level
+     */
+    public static Tablebase analyze(Board level) {
+        return analyze(BoardState.of(level));
+    }
+
+    /**
+     * Performs the retrograde analysis of the level with the specified state.
+     *
+     * @param root The state of the level to analyze
+     * @return The tablebase of the level
+     */
+    public static Tablebase analyze(BoardState root) {
+        int[] moves = new int[Board.MAX_MOVES];
+        Map<BoardState, Integer> labels = new HashMap<>();
+        Queue<BoardState> queue = new ArrayDeque<>();
+        List<BoardState> winningStates = new ArrayList<>();
+        labels.put(root, DEAD);
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            BoardState state = queue.remove();
+            if (state.isInWinningState()) {
+                winningStates.add(state);
+            }
+            int count = state.getPossibleMoves(moves);
+            for (int i = 0; i < count; i++) {
+                BoardState child = state.move(moves[i]);
+                if (labels.putIfAbsent(child, DEAD) == null) {
+                    queue.add(child);
+                }
+            }
+        }
+
+        // Sweep backwards from the winning states, every state being dead until labelled
+        for (BoardState state : winningStates) {
+            labels.put(state, 0);
+        }
+        queue.addAll(winningStates);
+        int[] forwardMoves = new int[Board.MAX_MOVES];
+        while (!queue.isEmpty()) {
+            BoardState state = queue.remove();
+            int distance = (labels.get(state) >>> 16) + 1;
+            int count = state.getReverseMoves(moves);
+            for (int i = 0; i < count; i++) {
+                BoardState predecessor = state.move(moves[i]);
+                Integer label = labels.get(predecessor);
+                if (label == null || label != DEAD) {
+                    continue;
+                }
+                int forwardCount = predecessor.getPossibleMoves(forwardMoves);
+                for (int j = 0; j < forwardCount; j++) {
+                    if (predecessor.move(forwardMoves[j]).equals(state)) {
+                        labels.put(predecessor, distance << 16 | forwardMoves[j]);
+                        break;
+                    }
+                }
+                queue.add(predecessor);
+            }
+        }
+        return new Tablebase(root, labels);
+    }
+
+    /**
+     * Reads a tablebase from the specified file.
+     *
+     * @param path The path of the tablebase file
+     * @return The tablebase held by the file
+     * @throws IOException If the file cannot be read or is not a tablebase file
+     */
+    public static Tablebase read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(path + " is not a tablebase file");
+            }
+            BoardState root = new BoardState(in.readLong(), in.readLong());
+            int size = in.readInt();
+            Map<BoardState, Integer> labels = new HashMap<>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                labels.put(new BoardState(in.readLong(), in.readLong()), in.readInt());
+            }
+            return new Tablebase(root, labels);
+        }
+    }
+
+    /**
+     * Writes this tablebase into the specified file. The file is replaced only once
+     * it is complete.
+     *
+     * @param path The path of the tablebase file
+     * @throws IOException If the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(root.getLow());
+            out.writeLong(root.getHigh());
+            out.writeInt(labels.size());
+            for (Map.Entry<BoardState, Integer> label : labels.entrySet()) {
+                out.writeLong(label.getKey().getLow());
+                out.writeLong(label.getKey().getHigh());
+                out.writeInt(label.getValue());
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @param state A state
+     * @return True if the state is reachable from the root, false otherwise
+     */
+    public boolean contains(BoardState state) {
+        return labels.containsKey(state);
+    }
+
+    /**
+     * @param state A state reachable from the root
+     * @return True if no winning state can be reached from the state, false
+     * otherwise
+     */
+    public boolean isDead(BoardState state) {
+        Integer label = labels.get(state);
+        return label != null && label == DEAD;
+    }
+
+    /**
+     * @param state The state whose distance to a winning state is to be determined
+     * @return The number of moves separating the state from a winning state, or
+     * {@link #DEAD} if the state is dead or not reachable from the root
+     */
+    public int getDistance(BoardState state) {
+        Integer label = labels.get(state);
+        return label == null || label == DEAD ? DEAD : label >>> 16;
+    }
+
+    /**
+     * @param state The state whose next best move is to be determined
+     * @return The next best packed move for the state (see
+     * {@link Move#pack(int, int)}), or -1 if the state is winning, dead or not
+     * reachable from the root
+     */
+    public int getMove(BoardState state) {
+        Integer label = labels.get(state);
+        return label == null || label == DEAD || label >>> 16 == 0 ? -1 : label & 0xFFFF;
+    }
+
+    /**
+     * Returns every reachable state that can be solved along with its label, that
+     * is its distance to a winning state (upper 16 bits) and its next best packed
+     * move (lower 16 bits). Winning states are left out.
+     *
+     * @return The labels of the reachable states that can be solved, but are not
+     * won yet
+     */
+    public Map<BoardState, Integer> getSolutions() {
+        Map<BoardState, Integer> solutions = new HashMap<>();
+        labels.forEach((state, label) -> {
+            if (label != DEAD && label >>> 16 != 0) {
+                solutions.put(state, label);
+            }
+        });
+        return solutions;
+    }
+
+    /**
+     * @return The number of states reachable from the root
+     */
+    public int getStateCount() {
+        return labels.size();
+    }
+
+    /**
+     * Determines the proportion of the moves available from solvable states that
+     * lead to a dead state. The higher the proportion, the easier it is to lose a
+     * level for good.
+     *
+     * @return The proportion of the moves of solvable states that lead to a dead
+     * state, between 0 and 1
+     */
+    public double getDeadMoveRatio() {
+        int[] moves = new int[Board.MAX_MOVES];
+        long total = 0;
+        long dead = 0;
+        for (Map.Entry<BoardState, Integer> label : labels.entrySet()) {
+            if (label.getValue() == DEAD) {
+                continue;
+            }
+            int count = label.getKey().getPossibleMoves(moves);
+            for (int i = 0; i < count; i++) {
+                dead += isDead(label.getKey().move(moves[i])) ? 1 : 0;
+            }
+            total += count;
+        }
+        return total == 0 ? 0 : (double) dead / total;
+    }
+}
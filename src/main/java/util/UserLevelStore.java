@@ -0,0 +1,420 @@
+package util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import lombok.extern.log4j.Log4j;
+import model.Board;
+import model.BoardState;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * This class represents the store of the levels built by the user. The levels
+ * are kept in a JSON level file, the snapshot, along with a journal of the
+ * levels added and removed since the snapshot was last written. Saving a level
+ * only appends a record to the journal, whatever the number of levels. Once the
+ * journal grows as long as the number of levels, it is compacted into a new
+ * snapshot, written to a temporary file and renamed over the old one so that a
+ * crash never leaves a partially written snapshot behind. In memory, the levels
+ * are indexed by name, so that duplicate checks and lookups take constant time
+ * however many levels the user built.
+ * <p>
+ * Every record of the journal is a JSON object on its own line, either
+ * {"op": "add", "name": ..., "board": ...} or {"op": "remove", "name": ...}.
+ * Replaying the journal over the snapshot it was compacted into yields that same
+ * snapshot, so a crash between writing a snapshot and clearing the journal loses
+ * nothing.
+ *
+ * @author Samuel Gamelin
+ */
+@Log4j
+final class UserLevelStore {
+
+    /**
+     * The minimum number of records of the journal before it is compacted.
+     */
+    private static final int COMPACTION_THRESHOLD = 64;
+
+    /**
+     * The operation of a record adding a level.
+     */
+    private static final String ADD = "add";
+
+    /**
+     * The operation of a record removing a level.
+     */
+    private static final String REMOVE = "remove";
+
+    /**
+     * Used to serialize the records of the journal, each on a single line.
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * The path of the snapshot.
+     */
+    private final Path path;
+
+    /**
+     * The path of the journal.
+     */
+    private final Path journal;
+
+    /**
+     * The key of the array of levels in the snapshot.
+     */
+    private final String key;
+
+    /**
+     * The states of the levels of this store, indexed by name, or null if they were
+     * not loaded yet.
+     */
+    private Map<String, BoardState> levels;
+
+    /**
+     * The names of the levels of this store, in the order they were added.
+     */
+    private List<String> names;
+
+    /**
+     * The number of records in the journal.
+     */
+    private int journalSize;
+
+    /**
+     * The modification times of the snapshot and of the journal when they were last
+     * read or written by this store, used to notice changes made by others.
+     */
+    private long snapshotModified, journalModified;
+
+    /**
+     * True if the snapshot or the journal could not be fully read, in which case
+     * the loaded levels are incomplete and must never be compacted over the files.
+     */
+    private boolean incomplete;
+
+    /**
+     * Creates a store of the levels held by the specified snapshot and its journal,
+     * which sits next to it. Nothing is read until the levels are first needed.
+     *
+     * @param path The path of the snapshot
+     * @param key  The key of the array of levels in the snapshot
+     */
+    UserLevelStore(Path path, String key) {
+        this.path = path;
+        this.journal = path.resolveSibling(path.getFileName() + ".journal");
+        this.key = key;
+    }
+
+    /**
+     * Adds a level to this store, if no level with the same name exists.
+     *
+     * @param board The board of the level, named after the level
+     * @return True if the level was saved, false otherwise
+     */
+    synchronized boolean add(Board board) {
+        load();
+        if (levels.containsKey(board.getName())) {
+            return false;
+        }
+        JsonObject record = new JsonObject();
+        record.addProperty("op", ADD);
+        record.addProperty("name", board.getName());
+        record.addProperty("board", board.toString());
+        try {
+            append(record);
+        } catch (IOException e) {
+            log.error("Unable to save user-defined level to " + journal, e);
+            return false;
+        }
+        put(board.getName(), BoardState.of(board));
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Removes the level with the specified name from this store, if it exists.
+     *
+     * @param name The name of the level to remove
+     * @return True if the level was removed, false otherwise
+     */
+    synchronized boolean remove(String name) {
+        load();
+        if (!levels.containsKey(name)) {
+            return false;
+        }
+        JsonObject record = new JsonObject();
+        record.addProperty("op", REMOVE);
+        record.addProperty("name", name);
+        try {
+            append(record);
+        } catch (IOException e) {
+            log.error("Unable to remove user-defined level from " + journal, e);
+            return false;
+        }
+        delete(name);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * @param name The name of a level
+     * @return True if this store holds a level with that name, false otherwise
+     */
+    synchronized boolean contains(String name) {
+        load();
+        return levels.containsKey(name);
+    }
+
+    /**
+     * Creates the board of the level with the specified name.
+     *
+     * @param name The name of the level
+     * @return A new board for that level, or null if no level has that name
+     */
+    synchronized Board getBoard(String name) {
+        load();
+        BoardState state = levels.get(name);
+        return state == null ? null : state.toBoard(name);
+    }
+
+    /**
+     * Returns a read-only view of the boards of all levels of this store, in the
+     * order they were added. The view reflects later changes to the store, and
+     * boards are only created as they are accessed, a new one on every access.
+     *
+     * @return A list of the boards of all levels of this store
+     */
+    synchronized List<Board> getBoards() {
+        load();
+        return new AbstractList<Board>() {
+            @Override
+            public Board get(int index) {
+                synchronized (UserLevelStore.this) {
+                    return levels.get(names.get(index)).toBoard(names.get(index));
+                }
+            }
+
+            @Override
+            public int size() {
+                synchronized (UserLevelStore.this) {
+                    return names.size();
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes the levels of this store into a new snapshot, and clears the journal.
+     *
+     * @throws IOException If the snapshot or the journal could not be fully read,
+     *                     if the snapshot cannot be written or if the journal cannot
+     *                     be cleared
+     */
+    synchronized void compact() throws IOException {
+        load();
+        if (incomplete) {
+            throw new IOException("The user-defined levels at " + path + " could not be fully read");
+        }
+        writeSnapshot();
+    }
+
+    /**
+     * Writes the loaded levels of this store into a new snapshot, and clears the
+     * journal.
+     *
+     * @throws IOException If the snapshot cannot be written or the journal cannot
+     *                     be cleared
+     */
+    private void writeSnapshot() throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(temporary, Charset.defaultCharset()))) {
+            writer.setIndent("  ");
+            writer.beginObject().name(key).beginArray();
+            for (String name : names) {
+                writer.beginObject().name("name").value(name).name("board").value(levels.get(name).toString())
+                        .endObject();
+            }
+            writer.endArray().endObject();
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.deleteIfExists(journal);
+        journalSize = 0;
+        recordModificationTimes();
+    }
+
+    /**
+     * Compacts the journal once it holds at least as many records as there are
+     * levels, so that the cost of compacting is spread over the saves that led to
+     * it. Nothing is compacted while the loaded levels are incomplete.
+     */
+    private void compactIfNeeded() {
+        if (!incomplete && journalSize >= Math.max(COMPACTION_THRESHOLD, levels.size())) {
+            try {
+                writeSnapshot();
+            } catch (IOException e) {
+                // The journal still holds every change, so compacting can wait for the next save
+                log.error("Unable to compact the user-defined levels at " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Appends a record to the journal, forcing it to the disk. Should the journal
+     * end with a partially written record, the record is appended on a line of its
+     * own.
+     *
+     * @param record The record to append
+     * @throws IOException If the record cannot be written
+     */
+    private void append(JsonObject record) throws IOException {
+        String text = GSON.toJson(record) + "\n";
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            if (channel.size() > 0 && channel.read(last, channel.size() - 1) == 1 && last.get(0) != '\n') {
+                text = "\n" + text;
+            }
+            ByteBuffer line = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+            channel.position(channel.size());
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        }
+        journalSize++;
+        recordModificationTimes();
+    }
+
+    /**
+     * Loads the levels of the snapshot and replays the journal over them, unless
+     * they were already loaded and neither file was modified since. Malformed
+     * records, such as a partially written record left by a crash, are skipped
+     * and the journal is compacted right away. Should the snapshot or the journal
+     * not be fully read, the loaded levels are incomplete: both files are left
+     * untouched and new records are only appended to the journal.
+     */
+    private void load() {
+        if (levels != null && snapshotModified == path.toFile().lastModified() &&
+                journalModified == journal.toFile().lastModified()) {
+            return;
+        }
+        levels = new HashMap<>();
+        names = new ArrayList<>();
+        journalSize = 0;
+        incomplete = false;
+        if (Files.isRegularFile(path)) {
+            try (Reader reader = Files.newBufferedReader(path, Charset.defaultCharset())) {
+                LevelCatalogue snapshot = LevelCatalogue.parse(reader, key);
+                for (int i = 0; i < snapshot.size(); i++) {
+                    if (!levels.containsKey(snapshot.getName(i))) {
+                        put(snapshot.getName(i), snapshot.getState(i));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not load the user-defined levels at " + path + ", keeping a copy of them", e);
+                incomplete = true;
+                try {
+                    Files.copy(path, path.resolveSibling(path.getFileName() + ".corrupt"),
+                            StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException copyException) {
+                    log.error("Could not keep a copy of the user-defined levels at " + path, copyException);
+                }
+            }
+        }
+        boolean malformed = false;
+        if (Files.isRegularFile(journal)) {
+            try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+                for (String line; (line = reader.readLine()) != null; journalSize++) {
+                    malformed |= !replay(line);
+                }
+            } catch (IOException e) {
+                log.error("Could not read the journal of the user-defined levels at " + journal, e);
+                incomplete = true;
+            }
+        }
+        if (malformed && !incomplete) {
+            log.warn("Discarding the malformed records of the journal at " + journal);
+            try {
+                writeSnapshot();
+            } catch (IOException e) {
+                log.error("Unable to compact the user-defined levels at " + path, e);
+            }
+        }
+        recordModificationTimes();
+    }
+
+    /**
+     * Records the current modification times of the snapshot and of the journal,
+     * after this store read or wrote them.
+     */
+    private void recordModificationTimes() {
+        snapshotModified = path.toFile().lastModified();
+        journalModified = journal.toFile().lastModified();
+    }
+
+    /**
+     * Replays a record of the journal over the levels of this store.
+     *
+     * @param line The line of the journal holding the record
+     * @return True if the record was replayed, false if it is malformed
+     */
+    private boolean replay(String line) {
+        try {
+            JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+            String name = record.get("name").getAsString();
+            if (ADD.equals(record.get("op").getAsString())) {
+                BoardState state = BoardState.fromString(record.get("board").getAsString());
+                if (state == null) {
+                    return false;
+                }
+                put(name, state);
+            } else {
+                delete(name);
+            }
+            return true;
+        } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds a level to the loaded levels of this store, or replaces the state of the
+     * level with the same name.
+     *
+     * @param name  The name of the level
+     * @param state The state of the level
+     */
+    private void put(String name, BoardState state) {
+        if (levels.put(name, state) == null) {
+            names.add(name);
+        }
+    }
+
+    /**
+     * Removes a level from the loaded levels of this store, if it exists.
+     *
+     * @param name The name of the level
+     */
+    private void delete(String name) {
+        if (levels.remove(name) != null) {
+            names.remove(name);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import util.Move;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the BoardState class.
+ *
+ * @author Samuel Gamelin
+ */
+class BoardStateTest {
+
+    private final String TEST_BOARD_1 = "RBG MU X X X FHU1 FTU1 X X X FHL0 X RBB X X FTL0 X X X X X X X X RBW";
+
+    private final String TEST_BOARD_2 = "X FTR1 X MU X X FHR1 X X X X X MU X X MU RBW X X RBG X X RBB X X";
+
+    private Board board1;
+
+    private BoardState state1;
+
+    @BeforeEach
+    void setUp() {
+        board1 = Board.createBoard("Anyboard", TEST_BOARD_1);
+        state1 = BoardState.of(board1);
+    }
+
+    @Test
+    void testToString() {
+        assertEquals(TEST_BOARD_1, state1.toString());
+        assertEquals(TEST_BOARD_2, BoardState.fromString(TEST_BOARD_2).toString());
+        assertEquals("X X X X X X X X X X X X X X X X X X X X X X X X X",
+                BoardState.of(new Board("Anyboard")).toString());
+        assertNull(BoardState.fromString("This is a malformed board"));
+    }
+
+    @Test
+    void testToBoard() {
+        Board board = state1.toBoard("Anyboard");
+        assertEquals(TEST_BOARD_1, board.toString());
+        assertEquals(state1, BoardState.of(board));
+        assertTrue(board.getPiece(1, 0) instanceof Fox);
+        assertSame(board.getPiece(1, 1), ((Fox) board.getPiece(1, 0)).getOtherHalf());
+        assertSame(board.getPiece(3, 0), ((Fox) board.getPiece(2, 0)).getOtherHalf());
+    }
+
+    @Test
+    void testEquality() {
+        assertEquals(state1, BoardState.of(new Board(board1)));
+        assertEquals(state1.hashCode(), BoardState.of(new Board(board1)).hashCode());
+        assertTrue(board1.move(new Move(0, 0, 0, 2)));
+        assertNotEquals(state1, BoardState.of(board1));
+    }
+
+    @Test
+    void testMasks() {
+        assertEquals(BoardState.bit(0, 0) | BoardState.bit(2, 2) | BoardState.bit(4, 4), state1.rabbits());
+        assertEquals(BoardState.bit(0, 1), state1.mushrooms());
+        assertEquals(BoardState.bit(1, 0) | BoardState.bit(1, 1) | BoardState.bit(2, 0) | BoardState.bit(3, 0),
+                state1.foxes());
+        assertEquals(BoardState.bit(1, 0) | BoardState.bit(2, 0), state1.foxHeads());
+        assertEquals(state1.rabbits() | state1.mushrooms() | state1.foxes(), state1.occupied());
+    }
+
+    @Test
+    void testCodes() {
+        assertEquals(BoardState.MUSHROOM, state1.codeAt(BoardState.square(0, 1)));
+        assertEquals(BoardState.EMPTY, state1.codeAt(BoardState.square(4, 3)));
+        int head = state1.codeAt(BoardState.square(1, 0));
+        assertEquals(Fox.Direction.UP, BoardState.direction(head));
+        assertEquals(BoardState.square(1, 1), BoardState.otherHalf(BoardState.square(1, 0), head));
+        assertEquals(state1, BoardState.pack(state1.unpack()));
+    }
+
+    @Test
+    void testGetPossibleMovesAndMove() {
+        Board board = Board.createBoard("Anyboard", TEST_BOARD_2);
+        BoardState state = BoardState.of(board);
+        int[] boardMoves = new int[Board.MAX_MOVES];
+        int[] stateMoves = new int[Board.MAX_MOVES];
+        int count = board.getPossibleMoves(boardMoves);
+        assertEquals(board.getPossibleMoves().size(), count);
+        assertEquals(count, state.getPossibleMoves(stateMoves));
+        for (int i = 0; i < count; i++) {
+            assertEquals(boardMoves[i], stateMoves[i]);
+            Board copy = new Board(board);
+            assertTrue(copy.move(Move.unpack(boardMoves[i])));
+            assertEquals(BoardState.of(copy), state.move(stateMoves[i]));
+        }
+        assertEquals(0, BoardState.of(new Board("Anyboard")).getPossibleMoves(stateMoves));
+    }
+
+    @Test
+    void testGetPossibleMovesInMacroMoveMode() {
+        BoardState state = BoardState.fromString(TEST_BOARD_2);
+        int[] moves = new int[Board.MAX_MOVES];
+        int count = state.getPossibleMoves(moves);
+        assertEquals(count, state.getPossibleMoves(new int[Board.MAX_MOVES], -1));
+        Set<BoardState> reachable = new HashSet<>();
+        reachable.add(state);
+        for (int i = 0; i < count; i++) {
+            reachable.add(state.move(moves[i]));
+        }
+
+        int[] childMoves = new int[Board.MAX_MOVES];
+        int[] macroMoves = new int[Board.MAX_MOVES];
+        for (int i = 0; i < count; i++) {
+            BoardState child = state.move(moves[i]);
+            int childCount = child.getPossibleMoves(childMoves);
+            Set<Integer> macro = new HashSet<>();
+            for (int j = child.getPossibleMoves(macroMoves, Move.end(moves[i])) - 1; j >= 0; j--) {
+                macro.add(macroMoves[j]);
+            }
+            for (int j = 0; j < childCount; j++) {
+                if (!macro.contains(childMoves[j])) {
+                    // Only the fox that just slid is left out, its second slide leading nowhere new
+                    assertNotEquals(0, child.codeAt(Move.start(childMoves[j])) & BoardState.FOX);
+                    assertTrue(reachable.contains(child.move(childMoves[j])));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testGetReverseMoves() {
+        BoardState state = BoardState.fromString(TEST_BOARD_2);
+        int[] moves = new int[Board.MAX_MOVES];
+        int[] reverseMoves = new int[Board.MAX_MOVES];
+        int[] predecessorMoves = new int[Board.MAX_MOVES];
+        int count = state.getPossibleMoves(moves);
+        for (int i = 0; i < count; i++) {
+            // Every move can be undone by a reverse move
+            BoardState child = state.move(moves[i]);
+            boolean undone = false;
+            int reverseCount = child.getReverseMoves(reverseMoves);
+            for (int j = 0; j < reverseCount; j++) {
+                BoardState predecessor = child.move(reverseMoves[j]);
+                undone |= predecessor.equals(state);
+                // Every reverse move leads to a state from which the child can be reached
+                boolean reached = false;
+                int predecessorCount = predecessor.getPossibleMoves(predecessorMoves);
+                for (int k = 0; k < predecessorCount; k++) {
+                    reached |= predecessor.move(predecessorMoves[k]).equals(child);
+                }
+                assertTrue(reached);
+            }
+            assertTrue(undone);
+        }
+    }
+
+    @Test
+    void testGetWinningStates() {
+        // Three rabbits in five holes, with every fox on its own row or column
+        Set<BoardState> states = BoardState.fromString(TEST_BOARD_1).getWinningStates();
+        assertFalse(states.isEmpty());
+        assertTrue(states.contains(state1));
+        for (BoardState state : states) {
+            assertTrue(state.isInWinningState());
+            assertEquals(state1.mushrooms(), state.mushrooms());
+            assertEquals(Integer.bitCount(state1.foxes()), Integer.bitCount(state.foxes()));
+        }
+        assertTrue(BoardState.of(new Board("Anyboard")).getWinningStates().isEmpty());
+    }
+
+    @Test
+    void testGetCanonicalState() {
+        // The same board, transposed and with another rabbit colour and fox identifier
+        BoardState state = BoardState.fromString("X X RBW X X X X MU FHL0 X X X X FTL0 X X X X X X X X X X X");
+        BoardState transposed = BoardState.fromString("X X X X X X X X X X RBG MU X X X X FHU1 FTU1 X X X X X X X");
+        assertNotEquals(state, transposed);
+        assertEquals(state.getCanonicalState(), transposed.getCanonicalState());
+        assertEquals(state.getCanonicalState(), state.getCanonicalState().getCanonicalState());
+        assertNotEquals(state1.getCanonicalState(), state.getCanonicalState());
+        assertEquals(state.isInWinningState(), state.getCanonicalState().isInWinningState());
+    }
+
+    @Test
+    void testGetMinimumMovesToWin() {
+        assertEquals(0, state1.getMinimumMovesToWin());
+        // The white rabbit needs two jumps, the gray and brown ones a single jump
+        assertEquals(4, BoardState.fromString(TEST_BOARD_2).getMinimumMovesToWin());
+    }
+
+    @Test
+    void testIsDead() {
+        assertFalse(state1.isDead());
+        assertFalse(BoardState.fromString(TEST_BOARD_2).isDead());
+        // A lone rabbit has nothing to jump over
+        assertTrue(BoardState.fromString("X X RBG X X X X X X X X X X X X X X X X X X X X X X").isDead());
+        assertTrue(new BoardState(0, 0).isDead());
+
+        // A rabbit whose every landing square holds a mushroom
+        int[] codes = new int[BoardState.SQUARES];
+        codes[BoardState.square(0, 0)] = BoardState.RABBIT;
+        codes[BoardState.square(1, 1)] = BoardState.RABBIT;
+        codes[BoardState.square(3, 1)] = BoardState.MUSHROOM;
+        codes[BoardState.square(4, 1)] = BoardState.MUSHROOM;
+        codes[BoardState.square(1, 3)] = BoardState.MUSHROOM;
+        codes[BoardState.square(1, 4)] = BoardState.MUSHROOM;
+        assertTrue(BoardState.pack(codes).isDead());
+        codes[BoardState.square(1, 4)] = BoardState.EMPTY;
+        assertFalse(BoardState.pack(codes).isDead());
+
+        // A fox stuck between mushrooms for good over the middle hole, the corner holes
+        // but one holding mushrooms, leaves a single hole for two rabbits
+        codes = new int[BoardState.SQUARES];
+        int right = Fox.Direction.RIGHT.ordinal() << 2;
+        codes[BoardState.square(2, 2)] = BoardState.FOX | BoardState.HEAD | right;
+        codes[BoardState.square(1, 2)] = BoardState.FOX | right;
+        codes[BoardState.square(0, 2)] = BoardState.MUSHROOM;
+        codes[BoardState.square(3, 2)] = BoardState.MUSHROOM;
+        codes[BoardState.square(0, 0)] = BoardState.MUSHROOM;
+        codes[BoardState.square(4, 0)] = BoardState.MUSHROOM;
+        codes[BoardState.square(0, 4)] = BoardState.MUSHROOM;
+        codes[BoardState.square(1, 0)] = BoardState.RABBIT;
+        codes[BoardState.square(1, 4)] = BoardState.RABBIT;
+        assertTrue(BoardState.pack(codes).isDead());
+        codes[BoardState.square(3, 2)] = BoardState.EMPTY;
+        assertFalse(BoardState.pack(codes).isDead());
+    }
+
+    @Test
+    void testIsInWinningState() {
+        assertTrue(state1.isInWinningState());
+        assertEquals(board1.isInWinningState(), state1.isInWinningState());
+        assertFalse(BoardState.fromString(TEST_BOARD_2).isInWinningState());
+        assertFalse(BoardState.of(new Board("Anyboard")).isInWinningState());
+    }
+}
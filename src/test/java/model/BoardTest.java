@@ -29,6 +29,8 @@ class BoardTest {
         Board emptyBoard = new Board("Anyboard");
         assertNotNull(emptyBoard);
         assertEquals(emptyBoard, new Board(emptyBoard));
+        assertEquals(board1, Board.createBoard("Anyboard", TEST_BOARD_1));
+        assertNotEquals(board1, emptyBoard);
         assertNull(Board.createBoard("Anyboard", "This is a test of malformed strings being passed to the factory " +
                 "method."));
         assertNotNull(board1);
@@ -64,7 +66,7 @@ class BoardTest {
 
     @Test
     void testSetPiece() {
-        Fox fox = new Fox(Fox.Direction.DOWN, true);
+        Fox fox = Fox.of(Fox.Direction.DOWN, true);
         assertTrue(board1.setPiece(fox, 1, 1));
         assertTrue(board1.setPiece(fox, 0, 0)); // overwrites the rabbit
         assertFalse(board1.setPiece(fox, 6, 6));
@@ -96,6 +98,22 @@ class BoardTest {
         assertEquals(board1.toString(), TEST_BOARD_1);
     }
 
+    @Test
+    void testZobristKey() {
+        long key = board1.getZobristKey();
+        assertEquals(key, new Board(board1).getZobristKey());
+        assertEquals(key, Board.createBoard("Anyboard", TEST_BOARD_1).getZobristKey());
+        assertEquals(0, new Board("Anyboard").getZobristKey());
+
+        // The key is updated incrementally as pieces move, and restored when they move back
+        assertTrue(board1.move(new Move(1, 0, 1, 2)));
+        assertNotEquals(key, board1.getZobristKey());
+        assertEquals(Board.createBoard("Anyboard", board1.toString()).getZobristKey(), board1.getZobristKey());
+        assertTrue(board1.move(new Move(1, 2, 1, 0)));
+        assertEquals(key, board1.getZobristKey());
+        assertEquals(Board.createBoard("Anyboard", TEST_BOARD_1).hashCode(), board1.hashCode());
+    }
+
     @Test
     void testIsWinningState() {
         assertTrue(board1.isInWinningState()); // Game begins in winning state.
@@ -103,7 +121,7 @@ class BoardTest {
         assertTrue(board1.isInWinningState()); // One rabbit remains, game is in winning state.
         board1.removePiece(0, 0);
         assertFalse(board1.isInWinningState()); // No more rabbits, the game is not in a winning state.
-        board1.setPiece(new Mushroom(), 0, 0);
+        board1.setPiece(Mushroom.of(), 0, 0);
         assertFalse(board1.isInWinningState()); // Make sure it is actually checking for rabbits in brown holes.
     }
 }
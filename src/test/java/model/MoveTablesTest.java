@@ -0,0 +1,61 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MoveTables class.
+ *
+ * @author Samuel Gamelin
+ */
+class MoveTablesTest {
+
+    private static final int LEFT = Fox.Direction.LEFT.ordinal();
+
+    private static final int RIGHT = Fox.Direction.RIGHT.ordinal();
+
+    private static final int UP = Fox.Direction.UP.ordinal();
+
+    private static final int DOWN = Fox.Direction.DOWN.ordinal();
+
+    @Test
+    void testRay() {
+        assertArrayEquals(new int[]{BoardState.square(1, 2), BoardState.square(0, 2)},
+                MoveTables.ray(BoardState.square(2, 2), LEFT));
+        assertEquals(0, MoveTables.ray(BoardState.square(4, 4), DOWN).length);
+    }
+
+    @Test
+    void testRabbitJump() {
+        int rabbit = BoardState.square(0, 0);
+        // Nothing to jump over
+        assertEquals(-1, MoveTables.rabbitJump(rabbit, DOWN, BoardState.bit(0, 0)));
+        // Jumps over two pieces and lands on the first empty square
+        int occupied = BoardState.bit(0, 0) | BoardState.bit(0, 1) | BoardState.bit(0, 2);
+        assertEquals(BoardState.square(0, 3), MoveTables.rabbitJump(rabbit, DOWN, occupied));
+        // Jumping backwards from the far side of the pieces
+        assertEquals(rabbit, MoveTables.rabbitJump(BoardState.square(0, 3), UP,
+                BoardState.bit(0, 3) | BoardState.bit(0, 1) | BoardState.bit(0, 2)));
+        // No empty square left to land on
+        assertEquals(-1, MoveTables.rabbitJump(BoardState.square(2, 0), RIGHT,
+                BoardState.bit(2, 0) | BoardState.bit(3, 0) | BoardState.bit(4, 0)));
+        // Off the board
+        assertEquals(-1, MoveTables.rabbitJump(rabbit, LEFT, occupied));
+    }
+
+    @Test
+    void testFoxSlides() {
+        // A fox leading with the square (1, 2), sliding right until the piece at (4, 2)
+        int occupied = BoardState.bit(0, 2) | BoardState.bit(1, 2) | BoardState.bit(4, 2);
+        assertEquals(BoardState.bit(2, 2) | BoardState.bit(3, 2),
+                MoveTables.foxSlides(BoardState.square(1, 2), RIGHT, occupied));
+        // Sliding left is blocked right away by the other half
+        assertEquals(0, MoveTables.foxSlides(BoardState.square(1, 2), LEFT, occupied));
+        // Sliding up from (3, 3) towards the top edge
+        assertEquals(BoardState.bit(3, 2) | BoardState.bit(3, 1) | BoardState.bit(3, 0),
+                MoveTables.foxSlides(BoardState.square(3, 3), UP, BoardState.bit(3, 3)));
+        // Foxes in the bottom row may only slide left, as enforced by the fox's path validation
+        assertEquals(0, MoveTables.foxSlides(BoardState.square(1, 4), RIGHT, BoardState.bit(1, 4)));
+    }
+}
@@ -18,7 +18,7 @@ class MushroomTest {
 
     @BeforeEach
     void setUp() {
-        mushroom = new Mushroom();
+        mushroom = Mushroom.of();
     }
 
     @Test
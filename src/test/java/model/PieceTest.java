@@ -0,0 +1,40 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the interned pieces of the Piece class.
+ *
+ * @author Samuel Gamelin
+ */
+class PieceTest {
+
+    @Test
+    void testInterning() {
+        assertSame(Mushroom.of(), Mushroom.of());
+        assertSame(Rabbit.of(Rabbit.RabbitColour.GRAY), Rabbit.createRabbit("RBG"));
+        assertSame(Fox.of(Fox.Direction.DOWN, true), Fox.createFox("FHD1"));
+        assertSame(Fox.of(Fox.Direction.DOWN, true).getOtherHalf().getOtherHalf(), Fox.of(Fox.Direction.DOWN, true));
+        assertNotSame(Fox.of(Fox.Direction.DOWN, true), Fox.of(Fox.Direction.DOWN, false));
+    }
+
+    @Test
+    void testCodes() {
+        int pieces = 0;
+        for (int code = 0; code < 32; code++) {
+            Piece piece = Piece.of(code);
+            if (piece != null) {
+                assertEquals(code, piece.getCode());
+                assertEquals(code, BoardState.codeOf(piece));
+                pieces++;
+            }
+        }
+        // One mushroom, three rabbits and the heads and tails of eight foxes
+        assertEquals(1 + 3 + 16, pieces);
+        assertNull(Piece.of(BoardState.EMPTY));
+        assertNull(Piece.of(-1));
+        assertNull(Piece.of(32));
+    }
+}
@@ -22,8 +22,8 @@ class RabbitTest {
 
     @BeforeEach
     void setUp() {
-        rabbitBrown = new Rabbit(Rabbit.RabbitColour.BROWN);
-        rabbitWhite = new Rabbit(Rabbit.RabbitColour.WHITE);
+        rabbitBrown = Rabbit.of(Rabbit.RabbitColour.BROWN);
+        rabbitWhite = Rabbit.of(Rabbit.RabbitColour.WHITE);
         String TEST_BOARD = "X MU X X X FHU1 FTU1 X X X X X X X X X X X X X X X X X X";
         board = Board.createBoard("Anyboard", TEST_BOARD);
         assertNotNull(board);
@@ -25,7 +25,7 @@ class TileTest {
 
     @Test
     void testIsOccupied() {
-        tile1.placePiece(new Mushroom());
+        tile1.placePiece(Mushroom.of());
         tile2.placePiece(null);
         assertTrue(tile1.isOccupied());
         assertFalse(tile2.isOccupied());
@@ -33,7 +33,7 @@ class TileTest {
 
     @Test
     void testRemovePiece() {
-        Rabbit rabbit1 = new Rabbit(Rabbit.RabbitColour.BROWN);
+        Rabbit rabbit1 = Rabbit.of(Rabbit.RabbitColour.BROWN);
         tile1.placePiece(rabbit1);
         assertEquals(rabbit1, tile1.removePiece());
         assertNull(tile1.removePiece());
@@ -42,7 +42,7 @@ class TileTest {
 
     @Test
     void testRetrievePiece() {
-        Rabbit rabbit1 = new Rabbit(Rabbit.RabbitColour.WHITE);
+        Rabbit rabbit1 = Rabbit.of(Rabbit.RabbitColour.WHITE);
         tile1.placePiece(rabbit1);
         assertEquals(rabbit1, tile1.getPiece());
         assertNull(tile2.getPiece());
@@ -50,7 +50,7 @@ class TileTest {
 
     @Test
     void testPlacePiece() {
-        Rabbit rabbit1 = new Rabbit(Rabbit.RabbitColour.WHITE);
+        Rabbit rabbit1 = Rabbit.of(Rabbit.RabbitColour.WHITE);
         tile1.placePiece(rabbit1);
         assertEquals(rabbit1, tile1.getPiece());
         assertNull(tile2.getPiece());
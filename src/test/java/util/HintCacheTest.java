@@ -0,0 +1,103 @@
+package util;
+
+import model.Board;
+import model.BoardState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the HintCache class.
+ *
+ * @author Samuel Gamelin
+ */
+class HintCacheTest {
+
+    private final String NORMAL = "X X X X X FHU1 FTU1 X X RBB X X X X MU RBW MU X FHL0 X X X RBG FTL0 X";
+
+    private HintCache hintCache;
+
+    private List<Node> path;
+
+    @BeforeEach
+    void setUp() {
+        hintCache = new HintCache(4);
+        path = Solver.search(new Node(Board.createBoard("Anyboard", NORMAL)), Solver.Strategy.BREADTH_FIRST);
+    }
+
+    @Test
+    void testPutPath() {
+        hintCache.putPath(path);
+        // The last four nodes before the winning one are the most recent hints
+        assertEquals(4, hintCache.size());
+        assertEquals(-1, hintCache.getMove(path.get(0).getState()));
+        for (int i = path.size() - 5; i < path.size() - 1; i++) {
+            assertEquals(path.size() - 1 - i, hintCache.getDistance(path.get(i).getState()));
+            assertEquals(path.get(i).getMoveTo(path.get(i + 1)).pack(), hintCache.getMove(path.get(i).getState()));
+        }
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() {
+        BoardState[] states = new BoardState[5];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = path.get(i).getState();
+        }
+        for (int i = 0; i < 4; i++) {
+            hintCache.put(states[i], i + 1, i);
+        }
+        // Using the first hint makes the second one the least recently used
+        assertEquals(0, hintCache.getMove(states[0]));
+        hintCache.put(states[4], 5, 4);
+        assertEquals(4, hintCache.size());
+        assertEquals(-1, hintCache.getMove(states[1]));
+        assertEquals(1, hintCache.getDistance(states[0]));
+    }
+
+    @Test
+    void testSaveAndLoad(@TempDir Path directory) {
+        Path file = directory.resolve("HintCache.bin");
+        assertFalse(hintCache.load(file));
+        hintCache.putPath(path);
+        assertTrue(hintCache.save(file));
+
+        HintCache loaded = new HintCache(4);
+        assertTrue(loaded.load(file));
+        assertEquals(hintCache.size(), loaded.size());
+        BoardState state = path.get(path.size() - 2).getState();
+        assertEquals(hintCache.getMove(state), loaded.getMove(state));
+        assertEquals(1, loaded.getDistance(state));
+    }
+
+    @Test
+    void testLoadInvalidHints(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("HintCache.bin");
+        BoardState first = path.get(0).getState();
+        BoardState second = path.get(1).getState();
+        int move = path.get(0).getMoveTo(path.get(1)).pack();
+        hintCache.put(first, path.size() - 1, move);
+        // A move that cannot be made on the state, and a distance that is not positive
+        hintCache.put(second, path.size() - 2, move);
+        hintCache.put(path.get(2).getState(), 0, path.get(2).getMoveTo(path.get(3)).pack());
+        assertTrue(hintCache.save(file));
+
+        HintCache loaded = new HintCache(4);
+        assertTrue(loaded.load(file));
+        assertEquals(1, loaded.size());
+        assertEquals(move, loaded.getMove(first));
+
+        // A file without the header of the current format is discarded
+        byte[] contents = Files.readAllBytes(file);
+        contents[7]++;
+        Files.write(file, contents);
+        assertFalse(new HintCache(4).load(file));
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,107 @@
+package util;
+
+import com.google.gson.JsonParseException;
+import model.Board;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LevelCatalogue class.
+ *
+ * @author Samuel Gamelin
+ */
+class LevelCatalogueTest {
+
+    private final String LEVELS = "{\"userLevels\": [" +
+            "{\"name\": \"Easy\", \"board\": \"X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X\"}," +
+            "{\"name\": \"Broken\", \"board\": \"X X\"}," +
+            "{\"name\": 7, \"board\": \"X MU X X X X X X FHU1 FTU1 RBB X X X RBG X X X X X X X X X X\"}]}";
+
+    @Test
+    void testParse() throws IOException {
+        LevelCatalogue catalogue = LevelCatalogue.parse(new StringReader(LEVELS), "userLevels");
+        // The malformed board is skipped
+        assertEquals(2, catalogue.size());
+        assertTrue(catalogue.contains("Easy"));
+        assertFalse(catalogue.contains("Broken"));
+        assertEquals("Easy", catalogue.getBoards().get(0).getName());
+        assertEquals(catalogue.getBoard("7"), catalogue.getBoard(7));
+        assertEquals("X MU X X X X X X FHU1 FTU1 RBB X X X RBG X X X X X X X X X X", catalogue.getBoard(7).toString());
+        assertNull(catalogue.getBoard("Missing"));
+        assertEquals(0, LevelCatalogue.parse(new StringReader(LEVELS), "defaultLevels").size());
+
+        // Unknown keys are skipped, as are levels missing their name or board
+        catalogue = LevelCatalogue.parse(new StringReader("{\"version\": {\"major\": 2}, \"userLevels\": [" +
+                "{\"author\": [1, 2], \"board\": \"X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X\"," +
+                " \"name\": \"Easy\"}, {\"name\": \"Nameless\"}], \"defaultLevels\": []}"), "userLevels");
+        assertEquals(1, catalogue.size());
+        assertTrue(catalogue.contains("Easy"));
+        assertThrows(JsonParseException.class, () -> LevelCatalogue.parse(new StringReader("{\"userLevels\": 3}"),
+                "userLevels"));
+    }
+
+    @Test
+    void testBoardsAreIndependent() throws IOException {
+        LevelCatalogue catalogue = LevelCatalogue.parse(new StringReader(LEVELS), "userLevels");
+        Board board = catalogue.getBoard("Easy");
+        assertNotSame(board, catalogue.getBoard("Easy"));
+        assertNotNull(board.removePiece(2, 0));
+        assertNotEquals(board, catalogue.getBoard("Easy"));
+
+        // Listed boards are created as they are accessed
+        List<Board> boards = catalogue.getBoards();
+        assertEquals(2, boards.size());
+        assertNotSame(boards.get(0), boards.get(0));
+        assertEquals(boards.get(0), catalogue.getBoard("Easy"));
+        assertThrows(UnsupportedOperationException.class, () -> boards.remove(0));
+    }
+
+    @Test
+    void testDefaultLevels() {
+        LevelCatalogue catalogue = new LevelCatalogue.Cache(Thread.currentThread().getContextClassLoader()
+                .getResource("levels/LevelData.json"), "defaultLevels").get();
+        assertEquals(20, catalogue.size());
+        List<Board> boards = catalogue.getBoards();
+        for (int level = 1; level <= catalogue.size(); level++) {
+            assertEquals(boards.get(level - 1), catalogue.getBoard(level));
+        }
+    }
+
+    @Test
+    void testCache(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("CustomLevelData.json");
+        LevelCatalogue.Cache cache = new LevelCatalogue.Cache(path.toUri().toURL(), "userLevels");
+        // A missing file is an empty catalogue
+        assertEquals(0, cache.get().size());
+
+        Files.write(path, LEVELS.getBytes(Charset.defaultCharset()));
+        assertTrue(path.toFile().setLastModified(1_000_000));
+        LevelCatalogue catalogue = cache.get();
+        assertEquals(2, catalogue.size());
+        assertSame(catalogue, cache.get());
+
+        // The file is parsed again once its modification time changes
+        Files.write(path, "{\"userLevels\": []}".getBytes(Charset.defaultCharset()));
+        assertTrue(path.toFile().setLastModified(1_000_000));
+        assertSame(catalogue, cache.get());
+        assertTrue(path.toFile().setLastModified(2_000_000));
+        assertEquals(0, cache.get().size());
+
+        Files.write(path, "{\"userLevels\": [".getBytes(Charset.defaultCharset()));
+        assertTrue(path.toFile().setLastModified(3_000_000));
+        assertEquals(0, cache.get().size());
+
+        cache.invalidate();
+        assertNotSame(catalogue, cache.get());
+        assertEquals(0, new LevelCatalogue.Cache(null, "userLevels").get().size());
+    }
+}
@@ -0,0 +1,101 @@
+package util;
+
+import model.Board;
+import model.BoardState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LevelPack class.
+ *
+ * @author Samuel Gamelin
+ */
+class LevelPackTest {
+
+    private final String EASY = "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X";
+
+    private final String NORMAL = "X X X X X FHU1 FTU1 X X RBB X X X X MU RBW MU X FHL0 X X X RBG FTL0 X";
+
+    @Test
+    void testConvert(@TempDir Path directory) {
+        Path path = directory.resolve("LevelData.pack");
+        assertTrue(LevelPack.convert(Thread.currentThread().getContextClassLoader()
+                .getResource("levels/LevelData.json"), "defaultLevels", path));
+        LevelPack pack = LevelPack.open(path);
+        assertNotNull(pack);
+        assertEquals(20, pack.size());
+        for (int level = 1; level <= pack.size(); level++) {
+            assertEquals(String.valueOf(level), pack.getName(level - 1));
+            assertEquals(level - 1, pack.indexOf(String.valueOf(level)));
+            assertNotNull(pack.getBoard(String.valueOf(level)));
+        }
+        assertEquals(-1, pack.indexOf("21"));
+        assertNull(pack.getBoard("21"));
+    }
+
+    @Test
+    void testConvertInvalidSource(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("LevelData.pack");
+        assertFalse(LevelPack.convert(null, "defaultLevels", path));
+        assertFalse(LevelPack.convert(directory.resolve("Missing.json").toUri().toURL(), "defaultLevels", path));
+        Path corrupt = directory.resolve("Corrupt.json");
+        Files.write(corrupt, "{\"defaultLevels\": [{\"na".getBytes(StandardCharsets.UTF_8));
+        assertFalse(LevelPack.convert(corrupt.toUri().toURL(), "defaultLevels", path));
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    void testWrite(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("Levels.pack");
+        List<String> names = Arrays.asList("Easy", "Lapins et renards épineux", "Easy", "");
+        List<BoardState> states = Arrays.asList(BoardState.fromString(EASY), BoardState.fromString(NORMAL),
+                BoardState.fromString(NORMAL), BoardState.fromString(EASY));
+        LevelPack.write(path, names, states);
+        LevelPack pack = LevelPack.open(path);
+        assertNotNull(pack);
+        assertEquals(4, pack.size());
+        for (int i = 0; i < pack.size(); i++) {
+            assertEquals(names.get(i), pack.getName(i));
+            assertEquals(states.get(i), pack.getState(i));
+        }
+        // The first of several levels sharing a name is found
+        assertEquals(0, pack.indexOf("Easy"));
+        assertEquals(1, pack.indexOf("Lapins et renards épineux"));
+        assertEquals(3, pack.indexOf(""));
+        Board board = pack.getBoard(1);
+        assertEquals(NORMAL, board.toString());
+        assertEquals(names.get(1), board.getName());
+        assertThrows(IndexOutOfBoundsException.class, () -> pack.getState(4));
+
+        LevelPack.write(path, new ArrayList<>(), new ArrayList<>());
+        LevelPack empty = LevelPack.open(path);
+        assertNotNull(empty);
+        assertEquals(0, empty.size());
+        assertEquals(-1, empty.indexOf("Easy"));
+    }
+
+    @Test
+    void testInvalidFiles(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("Invalid.pack");
+        assertNull(LevelPack.open(path));
+        Files.write(path, new byte[]{1, 2, 3});
+        assertNull(LevelPack.open(path));
+        Files.write(path, new byte[64]);
+        assertNull(LevelPack.open(path));
+
+        LevelPack.write(path, Arrays.asList("Easy"), Arrays.asList(BoardState.fromString(EASY)));
+        byte[] truncated = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(truncated, 24));
+        assertNull(LevelPack.open(path));
+    }
+}
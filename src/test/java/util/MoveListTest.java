@@ -0,0 +1,55 @@
+package util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MoveList class.
+ *
+ * @author Samuel Gamelin
+ */
+class MoveListTest {
+
+    private MoveList moveList;
+
+    @BeforeEach
+    void setUp() {
+        moveList = new MoveList(Move.pack(0, 0, 0, 2), Move.pack(1, 0, 1, 2));
+    }
+
+    @Test
+    void testStack() {
+        assertEquals(2, moveList.size());
+        for (int i = 0; i < 40; i++) {
+            moveList.push(Move.pack(2, 2, 2, 4));
+        }
+        assertEquals(42, moveList.size());
+        moveList.clear();
+        assertTrue(moveList.isEmpty());
+        assertThrows(IllegalStateException.class, moveList::pop);
+        moveList.push(Move.pack(3, 1, 3, 3));
+        assertEquals(Move.pack(3, 1, 3, 3), moveList.pop());
+    }
+
+    @Test
+    void testGet() {
+        assertEquals(Move.pack(0, 0, 0, 2), moveList.get(0));
+        assertEquals(Move.pack(1, 0, 1, 2), moveList.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> moveList.get(2));
+        assertArrayEquals(new int[]{Move.pack(0, 0, 0, 2), Move.pack(1, 0, 1, 2)}, moveList.toArray());
+    }
+
+    @Test
+    void testJson() {
+        assertEquals("[]", new MoveList().toJson());
+        MoveList copy = MoveList.fromJson(moveList.toJson());
+        assertArrayEquals(moveList.toArray(), copy.toArray());
+
+        // Older saved games hold a stack of move objects, most recent move first
+        MoveList legacy = MoveList.fromJson("[{\"xStart\":1,\"yStart\":0,\"xEnd\":1,\"yEnd\":2}," +
+                "{\"xStart\":0,\"yStart\":0,\"xEnd\":0,\"yEnd\":2}]");
+        assertArrayEquals(moveList.toArray(), legacy.toArray());
+    }
+}
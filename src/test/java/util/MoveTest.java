@@ -55,6 +55,20 @@ class MoveTest {
         assertEquals(0, move2.xDistance());
     }
 
+    @Test
+    void testPack() {
+        Move move = new Move(1, 3, 4, 3);
+        int packed = move.pack();
+        assertEquals(Move.pack(1, 3, 4, 3), packed);
+        assertEquals(8, Move.start(packed));
+        assertEquals(23, Move.end(packed));
+        Move unpacked = Move.unpack(packed);
+        assertEquals(move.xStart, unpacked.xStart);
+        assertEquals(move.yStart, unpacked.yStart);
+        assertEquals(move.xEnd, unpacked.xEnd);
+        assertEquals(move.yEnd, unpacked.yEnd);
+    }
+
     @Test
     void testYDistance() {
         assertEquals(4, move1.yDistance());
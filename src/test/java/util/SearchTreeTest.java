@@ -0,0 +1,38 @@
+package util;
+
+import model.BoardState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SearchTree class.
+ *
+ * @author Samuel Gamelin
+ */
+class SearchTreeTest {
+
+    @Test
+    void testPath() {
+        BoardState root = BoardState.fromString("X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X");
+        SearchTree tree = new SearchTree(root);
+        int[] moves = new int[2000];
+        // Grow the tree past its initial capacity along a single branch
+        int node = 0;
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = Move.pack(i % 25, (i + 1) % 25);
+            node = tree.add(BoardState.pack(new int[BoardState.SQUARES]), node, moves[i]);
+        }
+        assertEquals(moves.length + 1, tree.size());
+        assertEquals(root, tree.getState(0));
+        assertEquals(SearchTree.NO_PARENT, tree.getParent(0));
+
+        int[] path = tree.getPath(node);
+        assertEquals(tree.size(), path.length);
+        for (int i = 1; i < path.length; i++) {
+            assertEquals(path[i - 1], tree.getParent(path[i]));
+            assertEquals(moves[i - 1], tree.getMove(path[i]));
+        }
+        assertArrayEquals(new int[]{0}, tree.getPath(0));
+    }
+}
@@ -0,0 +1,78 @@
+package util;
+
+import model.Board;
+import model.BoardState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SolutionDatabase class.
+ *
+ * @author Samuel Gamelin
+ */
+class SolutionDatabaseTest {
+
+    private Board easyBoard, normalBoard, unsolvableBoard;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        easyBoard = Board.createBoard("1", "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X");
+        normalBoard = Board.createBoard("2", "X X X X X FHU1 FTU1 X X RBB X X X X MU RBW MU X FHL0 X X X RBG FTL0 X");
+        unsolvableBoard = Board.createBoard("3", "X X RBG X X X X X X X X X X X X X X X X X X X X X X");
+    }
+
+    @Test
+    void testSolutions() {
+        List<Board> levels = Arrays.asList(easyBoard, normalBoard, unsolvableBoard);
+        SolutionDatabase database = SolutionDatabase.open(directory.resolve("SolutionDatabase.bin"), levels);
+        assertNotNull(database);
+        for (Board level : Arrays.asList(easyBoard, normalBoard)) {
+            // Following the database's moves should win in as many moves as the solver's shortest path
+            BoardState state = BoardState.of(level);
+            int distance = database.getDistance(state);
+            assertEquals(Solver.search(new Node(level), Solver.Strategy.BREADTH_FIRST).size() - 1, distance);
+            for (int i = 0; i < distance; i++) {
+                assertEquals(distance - i, database.getDistance(state));
+                state = state.move(database.getMove(state));
+            }
+            assertTrue(state.isInWinningState());
+        }
+        assertEquals(-1, database.getMove(BoardState.of(unsolvableBoard)));
+        assertEquals(-1, database.getDistance(BoardState.of(unsolvableBoard)));
+
+        // The state of an empty board is made of two zeros, like an empty slot
+        assertEquals(-1, database.getMove(new BoardState(0, 0)));
+        assertEquals(-1, database.getDistance(new BoardState(0, 0)));
+    }
+
+    @Test
+    void testReopen() throws Exception {
+        Path path = directory.resolve("SolutionDatabase.bin");
+        List<Board> levels = Collections.singletonList(easyBoard);
+        assertNotNull(SolutionDatabase.open(path, levels));
+        byte[] contents = Files.readAllBytes(path);
+
+        // The file is kept as long as it holds the solutions of the same levels
+        Files.write(path, contents);
+        assertNotNull(SolutionDatabase.open(path, levels));
+        assertArrayEquals(contents, Files.readAllBytes(path));
+
+        // The file is rewritten for other levels, or when it is damaged
+        SolutionDatabase database = SolutionDatabase.open(path, Collections.singletonList(normalBoard));
+        assertEquals(6, database.getDistance(BoardState.of(normalBoard)));
+        Files.write(path, new byte[]{1, 2, 3});
+        assertEquals(2, SolutionDatabase.open(path, levels).getDistance(BoardState.of(easyBoard)));
+    }
+}
@@ -1,9 +1,14 @@
 package util;
 
 import model.Board;
+import model.BoardState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -13,7 +18,7 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class SolverTest {
 
-    private Board easyBoard, normalBoard, hardBoard, unsolvableBoard;
+    private Board easyBoard, normalBoard, hardBoard, unsolvableBoard, stuckBoard;
 
     private Move noMove;
 
@@ -27,6 +32,9 @@ class SolverTest {
         hardBoard = Board.createBoard("Anyboard", HARD);
         String UNSOLVABLE = "X X RBG X X X X X X X X X X X X X X X X X X X X X X";
         unsolvableBoard = Board.createBoard("Anyboard", UNSOLVABLE);
+        // Unsolvable, although no deadlock is detected before searching its 1,680 reachable states
+        String STUCK = "X X X X X X MU FTR0 X X X X FHR0 X X FHU1 FTU1 X RBW RBB X X MU X RBG";
+        stuckBoard = Board.createBoard("Anyboard", STUCK);
         noMove = new Move(-1, -1, -1, -1);
     }
 
@@ -83,4 +91,129 @@ class SolverTest {
         // The board should now be solved.
         assertTrue(normalBoard.isInWinningState());
     }
+
+    @Test
+    void testDeadlocks() {
+        // The unsolvable board is a deadlock, proven without visiting any other state
+        assertEquals(SolveResult.Status.UNSOLVABLE, Solver.solveAsync(unsolvableBoard, Solver.Strategy.BREADTH_FIRST,
+                null, 0, null).join().getStatus());
+        for (Solver.Strategy strategy : Solver.Strategy.values()) {
+            assertTrue(Solver.search(new Node(unsolvableBoard), strategy, new SearchBudget(null, 0, null, () -> false))
+                    .isEmpty());
+        }
+
+        // Every strategy should prove the stuck board unsolvable once it ran out of states to visit
+        assertFalse(BoardState.of(stuckBoard).isDead());
+        for (Solver.Strategy strategy : Solver.Strategy.values()) {
+            assertTrue(Solver.search(new Node(stuckBoard), strategy,
+                    new SearchBudget(Duration.ofSeconds(30), Integer.MAX_VALUE, null, () -> false)).isEmpty());
+        }
+    }
+
+    @Test
+    void testIsSolvable() {
+        assertTrue(Solver.isSolvable(hardBoard, Solver.Strategy.A_STAR));
+        assertFalse(Solver.isSolvable(unsolvableBoard, Solver.Strategy.A_STAR));
+    }
+
+    @Test
+    void testSearchStrategies() {
+        // Every strategy should find a winning path as short as the breadth-first one
+        for (Solver.Strategy strategy : Solver.Strategy.values()) {
+            for (Board board : new Board[]{easyBoard, normalBoard, hardBoard}) {
+                List<Node> path = Solver.search(new Node(board), strategy);
+                assertEquals(Solver.search(new Node(board), Solver.Strategy.BREADTH_FIRST).size(), path.size());
+                assertEquals(new Node(board), path.get(0));
+                for (int i = 0; i < path.size() - 1; i++) {
+                    assertNotEquals(noMove.xStart, path.get(i).getMoveTo(path.get(i + 1)).xStart);
+                }
+                assertTrue(path.get(path.size() - 1).isWinningNode());
+            }
+            assertTrue(Solver.search(new Node(unsolvableBoard), strategy).isEmpty());
+            assertTrue(Solver.search(new Node(stuckBoard), strategy).isEmpty());
+            assertNotEquals(noMove.xStart, Solver.getNextBestMove(hardBoard, strategy).xStart);
+        }
+    }
+
+    @Test
+    void testSearchBudget() {
+        // Every strategy should give up once its budget runs out
+        for (Solver.Strategy strategy : Solver.Strategy.values()) {
+            assertNull(Solver.search(new Node(hardBoard), strategy, new SearchBudget(null, 100, null, () -> false)));
+            assertNull(Solver.search(new Node(hardBoard), strategy,
+                    new SearchBudget(Duration.ZERO, Integer.MAX_VALUE, null, () -> false)));
+            assertNull(Solver.search(new Node(hardBoard), strategy,
+                    new SearchBudget(null, Integer.MAX_VALUE, null, () -> true)));
+        }
+    }
+
+    @Test
+    void testSolveAsync() throws Exception {
+        SolveResult result = Solver.solveAsync(easyBoard, Solver.Strategy.BREADTH_FIRST, null, Integer.MAX_VALUE,
+                null).get();
+        assertEquals(SolveResult.Status.SOLVED, result.getStatus());
+        assertEquals(2, result.getDistance());
+        easyBoard.move(result.getMove());
+        easyBoard.move(Solver.getNextBestMove(easyBoard));
+        assertTrue(easyBoard.isInWinningState());
+
+        assertEquals(SolveResult.Status.UNSOLVABLE, Solver.solveAsync(unsolvableBoard,
+                Solver.Strategy.BREADTH_FIRST, null, Integer.MAX_VALUE, null).get().getStatus());
+
+        // A board no other test solves, so that its hint cannot be cached yet
+        Board board = Board.createBoard("Anyboard",
+                "X FTR1 X MU X X FHR1 X X X X X MU X X MU RBB X X RBW X X RBG X X");
+        assertEquals(SolveResult.Status.UNKNOWN, Solver.solveAsync(board, Solver.Strategy.BREADTH_FIRST,
+                Duration.ofMinutes(1), 100, null).get().getStatus());
+    }
+
+    @Test
+    void testResolve() {
+        // Once a winning path is known, straying from it should be resolved from that path
+        Solver.getNextBestMove(hardBoard);
+        BoardState state = BoardState.of(hardBoard);
+        int[] moves = new int[Board.MAX_MOVES];
+        int count = state.getPossibleMoves(moves);
+        for (int i = 0; i < count; i++) {
+            BoardState child = state.move(moves[i]);
+            SolveResult result = Solver.resolve(child, SearchBudget.unlimited());
+            assertNotNull(result);
+            assertEquals(SolveResult.Status.SOLVED, result.getStatus());
+            assertEquals(Solver.search(new Node(child), Solver.Strategy.BREADTH_FIRST).size() - 1,
+                    result.getDistance());
+
+            // Following the hints should win in exactly the reported number of moves
+            BoardState current = child;
+            Move hint = result.getMove();
+            for (int step = 0; step < result.getDistance(); step++) {
+                int[] legalMoves = new int[Board.MAX_MOVES];
+                int legalCount = current.getPossibleMoves(legalMoves);
+                int packed = hint.pack();
+                assertTrue(Arrays.stream(legalMoves, 0, legalCount).anyMatch(move -> move == packed));
+                current = current.move(packed);
+                hint = Solver.getNextBestMove(current.toBoard("Hard"));
+            }
+            assertTrue(current.isInWinningState());
+        }
+        assertEquals(SolveResult.Status.UNSOLVABLE,
+                Solver.resolve(BoardState.of(unsolvableBoard), SearchBudget.unlimited()).getStatus());
+    }
+
+    @Test
+    void testPrecomputeAsync() throws Exception {
+        // A board no other test solves, so that its hints cannot be cached yet
+        Board board = Board.createBoard("Anyboard",
+                "X X X X X FHU1 FTU1 X X RBG X X X X MU RBW MU X FHL0 X X X RBB FTL0 X");
+        BoardState state = BoardState.of(board);
+        int[] moves = new int[Board.MAX_MOVES];
+        int count = state.getPossibleMoves(moves);
+        Solver.precomputeAsync(board, moves, count, Solver.Strategy.BREADTH_FIRST, null, Integer.MAX_VALUE).get();
+
+        // Without any budget to search, only the cached hints can be found
+        for (int i = 0; i < count; i++) {
+            Board next = state.move(moves[i]).toBoard("Anyboard");
+            assertEquals(SolveResult.Status.SOLVED, Solver.solveAsync(next, Solver.Strategy.BREADTH_FIRST, null, 0,
+                    null).get().getStatus());
+        }
+    }
 }
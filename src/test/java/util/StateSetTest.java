@@ -0,0 +1,66 @@
+package util;
+
+import model.Board;
+import model.BoardState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the StateSet class.
+ *
+ * @author Samuel Gamelin
+ */
+class StateSetTest {
+
+    private final String HARD = "X FTR1 X MU X X FHR1 X X X X X MU X X MU RBW X X RBG X X RBB X X";
+
+    @Test
+    void testAddAndContains() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            // Enough states to make the table grow several times, checked against a hash set
+            StateSet stateSet = new StateSet(1, offHeap);
+            assertEquals(offHeap, stateSet.isOffHeap());
+            Set<BoardState> expected = new HashSet<>();
+            Queue<BoardState> queue = new ArrayDeque<>();
+            queue.add(BoardState.fromString(HARD));
+            int[] moves = new int[Board.MAX_MOVES];
+            while (!queue.isEmpty() && expected.size() < 2000) {
+                BoardState state = queue.remove();
+                boolean added = expected.add(state);
+                assertEquals(added, stateSet.add(state));
+                if (!added) {
+                    continue;
+                }
+                assertFalse(stateSet.add(state));
+                int count = state.getPossibleMoves(moves);
+                for (int i = 0; i < count; i++) {
+                    if (!expected.contains(state.move(moves[i]))) {
+                        assertFalse(stateSet.contains(state.move(moves[i])));
+                        queue.add(state.move(moves[i]));
+                    }
+                }
+            }
+            assertEquals(expected.size(), stateSet.size());
+            for (BoardState state : expected) {
+                assertTrue(stateSet.contains(state));
+            }
+        }
+    }
+
+    @Test
+    void testEmptyState() {
+        StateSet stateSet = new StateSet(16, true);
+        BoardState empty = BoardState.of(new Board("Anyboard"));
+        assertFalse(stateSet.contains(empty));
+        assertTrue(stateSet.add(empty));
+        assertFalse(stateSet.add(empty));
+        assertTrue(stateSet.contains(empty));
+        assertEquals(1, stateSet.size());
+    }
+}
@@ -0,0 +1,84 @@
+package util;
+
+import model.Board;
+import model.BoardState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Tablebase class.
+ *
+ * @author Samuel Gamelin
+ */
+class TablebaseTest {
+
+    private Board normalBoard, unsolvableBoard;
+
+    private Tablebase tablebase;
+
+    @BeforeEach
+    void setUp() {
+        normalBoard = Board.createBoard("Anyboard",
+                "X X X X X FHU1 FTU1 X X RBB X X X X MU RBW MU X FHL0 X X X RBG FTL0 X");
+        unsolvableBoard = Board.createBoard("Anyboard", "X X RBG X X X X X X X X X X X X X X X X X X X X X X");
+        tablebase = Tablebase.analyze(normalBoard);
+    }
+
+    @Test
+    void testDistances() {
+        BoardState state = BoardState.of(normalBoard);
+        assertEquals(state, tablebase.getRoot());
+        assertEquals(6, tablebase.getDistance(state));
+        // Every reachable state is labelled with the length of its shortest winning path
+        for (int distance = 6; distance > 0; distance--) {
+            assertEquals(distance, tablebase.getDistance(state));
+            assertEquals(distance, Solver.search(new Node(state), Solver.Strategy.BREADTH_FIRST).size() - 1);
+            state = state.move(tablebase.getMove(state));
+        }
+        assertTrue(state.isInWinningState());
+        assertEquals(0, tablebase.getDistance(state));
+        assertEquals(-1, tablebase.getMove(state));
+        assertFalse(tablebase.contains(BoardState.of(unsolvableBoard)));
+    }
+
+    @Test
+    void testDeadStates() {
+        Tablebase unsolvable = Tablebase.analyze(unsolvableBoard);
+        BoardState state = BoardState.of(unsolvableBoard);
+        assertTrue(unsolvable.isDead(state));
+        assertEquals(Tablebase.DEAD, unsolvable.getDistance(state));
+        assertEquals(-1, unsolvable.getMove(state));
+        assertEquals(1, unsolvable.getStateCount());
+        assertEquals(1, unsolvable.getDeadStateCount());
+        assertTrue(unsolvable.getSolutions().isEmpty());
+        // Deadlocks are only detected when certain
+        assertTrue(state.isDead());
+        for (BoardState solvable : tablebase.getSolutions().keySet()) {
+            assertFalse(solvable.isDead());
+        }
+    }
+
+    @Test
+    void testMetrics() {
+        assertTrue(tablebase.getMaximumDistance() >= 6);
+        assertTrue(tablebase.getStateCount() > tablebase.getSolutions().size());
+        assertTrue(tablebase.getDeadMoveRatio() >= 0 && tablebase.getDeadMoveRatio() <= 1);
+    }
+
+    @Test
+    void testWriteAndRead(@TempDir Path directory) throws Exception {
+        Path path = directory.resolve("Tablebase.bin");
+        tablebase.write(path);
+        Tablebase read = Tablebase.read(path);
+        assertEquals(tablebase.getRoot(), read.getRoot());
+        assertEquals(tablebase.getStateCount(), read.getStateCount());
+        assertEquals(tablebase.getDeadStateCount(), read.getDeadStateCount());
+        assertEquals(tablebase.getMaximumDistance(), read.getMaximumDistance());
+        assertEquals(tablebase.getSolutions(), read.getSolutions());
+    }
+}
@@ -0,0 +1,195 @@
+package util;
+
+import model.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the UserLevelStore class.
+ *
+ * @author Samuel Gamelin
+ */
+class UserLevelStoreTest {
+
+    private final String EASY = "X X X X X MU X X X MU RBB X X X RBG X X X X X X X X X X";
+
+    private final String NORMAL = "X X X X X FHU1 FTU1 X X RBB X X X X MU RBW MU X FHL0 X X X RBG FTL0 X";
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+
+    private Path journal;
+
+    private UserLevelStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = directory.resolve("CustomLevelData.json");
+        journal = directory.resolve("CustomLevelData.json.journal");
+        Files.write(path, "{\n  \"userLevels\": [\n  ]\n}".getBytes(Charset.defaultCharset()));
+        store = new UserLevelStore(path, "userLevels");
+    }
+
+    @Test
+    void testAddAndRemove() throws IOException {
+        String snapshot = new String(Files.readAllBytes(path), Charset.defaultCharset());
+        assertTrue(store.add(Board.createBoard("Easy", EASY)));
+        assertFalse(store.add(Board.createBoard("Easy", NORMAL)));
+        assertTrue(store.add(Board.createBoard("Normal", NORMAL)));
+        assertTrue(store.remove("Easy"));
+        assertFalse(store.remove("Easy"));
+
+        // Only the journal was written, one record per change
+        assertEquals(snapshot, new String(Files.readAllBytes(path), Charset.defaultCharset()));
+        assertEquals(3, Files.readAllLines(journal, StandardCharsets.UTF_8).size());
+
+        List<Board> boards = store.getBoards();
+        assertEquals(1, boards.size());
+        assertEquals("Normal", boards.get(0).getName());
+        assertEquals(NORMAL, boards.get(0).toString());
+
+        // A new store replays the journal over the snapshot
+        boards = new UserLevelStore(path, "userLevels").getBoards();
+        assertEquals(1, boards.size());
+        assertEquals(NORMAL, boards.get(0).toString());
+    }
+
+    @Test
+    void testNameIndex() {
+        List<Board> boards = store.getBoards();
+        assertTrue(store.add(Board.createBoard("Easy", EASY)));
+        assertTrue(store.add(Board.createBoard("Normal", NORMAL)));
+        assertTrue(store.contains("Easy"));
+        assertFalse(store.contains("Hard"));
+        assertEquals(NORMAL, store.getBoard("Normal").toString());
+        assertEquals("Normal", store.getBoard("Normal").getName());
+        assertNotSame(store.getBoard("Normal"), store.getBoard("Normal"));
+        assertNull(store.getBoard("Hard"));
+
+        // The view of the boards follows the changes to the store
+        assertEquals(2, boards.size());
+        assertTrue(store.remove("Easy"));
+        assertEquals(1, boards.size());
+        assertEquals("Normal", boards.get(0).getName());
+        assertTrue(store.add(Board.createBoard("Easy", EASY)));
+        assertEquals("Easy", boards.get(1).getName());
+        assertThrows(UnsupportedOperationException.class, () -> boards.remove(0));
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        for (int i = 0; i < 63; i++) {
+            assertTrue(store.add(Board.createBoard("Level " + i, i % 2 == 0 ? EASY : NORMAL)));
+        }
+        assertTrue(Files.exists(journal));
+        assertTrue(store.remove("Level 0"));
+        // The 64th record triggers a compaction into the snapshot
+        assertFalse(Files.exists(journal));
+        try (Reader reader = Files.newBufferedReader(path, Charset.defaultCharset())) {
+            LevelCatalogue catalogue = LevelCatalogue.parse(reader, "userLevels");
+            assertEquals(62, catalogue.size());
+            assertFalse(catalogue.contains("Level 0"));
+            assertEquals(NORMAL, catalogue.getBoard("Level 1").toString());
+        }
+        assertTrue(store.add(Board.createBoard("Level 0", EASY)));
+        assertEquals(63, new UserLevelStore(path, "userLevels").getBoards().size());
+
+        store.compact();
+        assertFalse(Files.exists(journal));
+        assertFalse(Files.exists(directory.resolve("CustomLevelData.json.tmp")));
+        assertEquals("Level 0", new UserLevelStore(path, "userLevels").getBoards().get(62).getName());
+    }
+
+    @Test
+    void testPartiallyWrittenRecord() throws IOException {
+        assertTrue(store.add(Board.createBoard("Easy", EASY)));
+        // A crash while appending a record leaves part of it behind
+        Files.write(journal, "{\"op\": \"add\", \"name\": \"Norm".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        UserLevelStore recovered = new UserLevelStore(path, "userLevels");
+        List<Board> boards = recovered.getBoards();
+        assertEquals(1, boards.size());
+        assertEquals("Easy", boards.get(0).getName());
+        // The journal was compacted so that no record is appended after the partial one
+        assertFalse(Files.exists(journal));
+        assertTrue(recovered.add(Board.createBoard("Normal", NORMAL)));
+        assertEquals(2, new UserLevelStore(path, "userLevels").getBoards().size());
+    }
+
+    @Test
+    void testExternalChanges() throws IOException {
+        assertTrue(store.add(Board.createBoard("Easy", EASY)));
+        assertEquals(1, store.getBoards().size());
+        new UserLevelStore(path, "userLevels").add(Board.createBoard("Normal", NORMAL));
+        assertTrue(journal.toFile().setLastModified(journal.toFile().lastModified() + 2000));
+        assertEquals(2, store.getBoards().size());
+        assertFalse(store.add(Board.createBoard("Normal", EASY)));
+    }
+
+    @Test
+    void testMissingAndCorruptSnapshot() throws IOException {
+        Files.delete(path);
+        assertTrue(store.getBoards().isEmpty());
+        assertTrue(store.add(Board.createBoard("Easy", EASY)));
+        assertEquals(1, new UserLevelStore(path, "userLevels").getBoards().size());
+
+        String broken = "{\"userLevels\": [{\"na";
+        Files.write(path, broken.getBytes(Charset.defaultCharset()));
+        Files.delete(journal);
+        UserLevelStore corrupt = new UserLevelStore(path, "userLevels");
+        assertTrue(corrupt.getBoards().isEmpty());
+        assertTrue(Files.exists(directory.resolve("CustomLevelData.json.corrupt")));
+
+        // Levels can still be saved, but a snapshot that failed to load is never compacted over
+        for (int i = 0; i < 70; i++) {
+            assertTrue(corrupt.add(Board.createBoard("Level " + i, EASY)));
+        }
+        assertThrows(IOException.class, corrupt::compact);
+        assertEquals(broken, new String(Files.readAllBytes(path), Charset.defaultCharset()));
+        assertEquals(70, Files.readAllLines(journal, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    void testUnreadableJournal() throws IOException {
+        assertTrue(store.add(Board.createBoard("Easy", EASY)));
+        // Bytes that are not valid UTF-8 make reading the journal fail part way through
+        Files.write(journal, new byte[]{(byte) 0xC3, (byte) 0x28, '\n'}, StandardOpenOption.APPEND);
+        byte[] contents = Files.readAllBytes(journal);
+        String snapshot = new String(Files.readAllBytes(path), Charset.defaultCharset());
+
+        UserLevelStore unreadable = new UserLevelStore(path, "userLevels");
+        unreadable.getBoards();
+        assertThrows(IOException.class, unreadable::compact);
+        // Neither file was rewritten, so no record is lost
+        assertArrayEquals(contents, Files.readAllBytes(journal));
+        assertEquals(snapshot, new String(Files.readAllBytes(path), Charset.defaultCharset()));
+    }
+
+    @Test
+    void testAppendAfterPartialRecord() throws IOException {
+        assertTrue(store.add(Board.createBoard("Easy", EASY)));
+        long modified = journal.toFile().lastModified();
+        Files.write(journal, "{\"op\": \"add\", \"name\": \"Norm".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        // Hide the partial record from the store, so that it appends right after it
+        assertTrue(journal.toFile().setLastModified(modified));
+        assertTrue(store.add(Board.createBoard("Normal", NORMAL)));
+        assertEquals(3, Files.readAllLines(journal, StandardCharsets.UTF_8).size());
+        assertEquals(2, new UserLevelStore(path, "userLevels").getBoards().size());
+    }
+}